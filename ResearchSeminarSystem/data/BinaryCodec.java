@@ -0,0 +1,165 @@
+package data;
+
+import models.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * BinaryCodec - reader for the single-file binary snapshots written before storage
+ * was split into shards (see ShardCodec). Kept so older data can be migrated.
+ * Every entity is written once as a flat record (varint-encoded ints, length-prefixed
+ * UTF-8 strings). Links between entities are written as references to the entity's
+ * position in its section, so the object graph is rebuilt in a second pass instead of
+ * being walked recursively like Java serialization does.
+ *
+ * Since version 2 the payload starts with an offset table of its sections, and the bulky
+ * text (submission abstracts, evaluation comments) lives in a separate text section that
+ * is only decoded when a model first asks for it - the snapshot is memory-mapped, so
+ * unread text never reaches the heap.
+ */
+class BinaryCodec {
+    static final int VERSION = 2;
+
+    // Sections, in payload order (version 2)
+    private static final int USERS = 0;
+    private static final int SESSIONS = 1;
+    private static final int SUBMISSIONS = 2;
+    private static final int EVALUATIONS = 3;
+    private static final int AWARDS = 4;
+    private static final int LINKS = 5;
+    private static final int TEXT = 6;
+    private static final int SECTION_COUNT = 7;
+
+    // User kinds
+    private static final int STUDENT = 1;
+    private static final int EVALUATOR = 2;
+    private static final int COORDINATOR = 3;
+
+    private BinaryCodec() {}
+
+    // Decoding
+
+    static DataStore decode(ByteBuffer payload) throws IOException {
+        BinaryIO.In in = new BinaryIO.In(payload);
+        int version = in.readVarInt();
+        if (version < 1 || version > VERSION) throw new IOException("Unsupported snapshot version " + version);
+
+        DataStore store = new DataStore();
+        store.generation = in.readVarLong();
+
+        // Version 1 has no section table and keeps all text inline
+        BinaryIO.In[] sections = new BinaryIO.In[SECTION_COUNT];
+        ByteBuffer text = null;
+        if (version == 1) {
+            for (int i = 0; i < SECTION_COUNT; i++) sections[i] = in;
+        } else {
+            sections = BinaryIO.sections(in, payload, SECTION_COUNT);
+            text = sections[TEXT].buf;
+        }
+
+        BinaryIO.In rec = sections[USERS];
+        int userCount = rec.readVarInt();
+        List<User> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            int kind = rec.readVarInt();
+            String id = rec.readString();
+            String name = rec.readString();
+            String email = rec.readString();
+            String password = rec.readString();
+            String phone = rec.readString();
+            String extra = rec.readString();
+
+            User user;
+            if (kind == STUDENT) user = new Student(id, name, email, password, extra);
+            else if (kind == EVALUATOR) user = new Evaluator(id, name, email, password, extra);
+            else if (kind == COORDINATOR) user = new Coordinator(id, name, email, password, extra);
+            else throw new IOException("Unknown user kind " + kind);
+            user.setPhoneNumber(phone);
+
+            users.add(user);
+            store.addUser(user);
+        }
+
+        rec = sections[SESSIONS];
+        int sessionCount = rec.readVarInt();
+        for (int i = 0; i < sessionCount; i++) {
+            store.sessions.add(new Session(rec.readString(), rec.readString(), rec.readString(),
+                    rec.readString(), rec.readString()));
+        }
+
+        rec = sections[SUBMISSIONS];
+        int submissionCount = rec.readVarInt();
+        for (int i = 0; i < submissionCount; i++) {
+            String id = rec.readString();
+            String title = rec.readString();
+            Supplier<String> abstractText = readText(rec, text);
+            Submission sub = new Submission(id, title, null, rec.readString(), rec.readString(),
+                    rec.readString(), null);
+            sub.setAbstractTextLoader(abstractText);
+            sub.setBoardId(rec.readString());
+            sub.setStudent(rec.readRef(users, Student.class));
+            sub.setSession(rec.readRef(store.sessions, Session.class));
+            store.submissions.add(sub);
+        }
+
+        rec = sections[EVALUATIONS];
+        int evaluationCount = rec.readVarInt();
+        for (int i = 0; i < evaluationCount; i++) {
+            String id = rec.readString();
+            int problemClarity = rec.readZigZag();
+            int methodology = rec.readZigZag();
+            int results = rec.readZigZag();
+            int presentation = rec.readZigZag();
+            Supplier<String> comments = readText(rec, text);
+            Evaluation ev = new Evaluation(id, problemClarity, methodology, results, presentation, null,
+                    rec.readRef(store.submissions, Submission.class),
+                    rec.readRef(users, Evaluator.class));
+            ev.setCommentsLoader(comments);
+            store.evaluations.add(ev);
+        }
+
+        rec = sections[AWARDS];
+        int awardCount = rec.readVarInt();
+        for (int i = 0; i < awardCount; i++) {
+            Award award = new Award(rec.readString(), rec.readString());
+            Submission winner = rec.readRef(store.submissions, Submission.class);
+            award.setWinner(winner, rec.readDouble());
+            store.awards.add(award);
+        }
+
+        rec = sections[LINKS];
+        for (User u : users) {
+            if (u instanceof Student) {
+                rec.readRefs(store.submissions, Submission.class, ((Student) u).getSubmissions());
+            } else if (u instanceof Evaluator) {
+                rec.readRefs(store.evaluations, Evaluation.class, ((Evaluator) u).getEvaluations());
+                rec.readRefs(store.sessions, Session.class, ((Evaluator) u).getAssignedSessions());
+            } else {
+                rec.readRefs(store.sessions, Session.class, ((Coordinator) u).getManagedSessions());
+            }
+        }
+        for (Session s : store.sessions) {
+            rec.readRefs(store.submissions, Submission.class, s.getSubmissions());
+            rec.readRefs(users, Evaluator.class, s.getEvaluators());
+        }
+        for (Submission sub : store.submissions) {
+            List<Evaluation> evaluations = new ArrayList<>();
+            rec.readRefs(store.evaluations, Evaluation.class, evaluations);
+            sub.setEvaluations(evaluations);
+        }
+
+        return store;
+    }
+
+    // A text field: inline in version 1, otherwise a reference into the text section
+    private static Supplier<String> readText(BinaryIO.In rec, ByteBuffer text) throws IOException {
+        if (text == null) {
+            String s = rec.readString();
+            return () -> s;
+        }
+        return BinaryIO.readText(rec, text);
+    }
+}
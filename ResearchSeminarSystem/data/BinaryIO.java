@@ -0,0 +1,262 @@
+package data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * BinaryIO - byte-level helpers shared by the snapshot codecs.
+ */
+final class BinaryIO {
+    private BinaryIO() {}
+
+    // Section table: after the caller's own header, (offset, length) of every section, then the sections
+    static byte[] assemble(Out head, Out[] sections) {
+        int offset = head.count + sections.length * 8;
+        Out table = new Out(sections.length * 8);
+        for (Out section : sections) {
+            table.writeInt(offset);
+            table.writeInt(section.count);
+            offset += section.count;
+        }
+
+        Out payload = new Out(offset);
+        payload.write(head.buf, 0, head.count);
+        payload.write(table.buf, 0, table.count);
+        for (Out section : sections) payload.write(section.buf, 0, section.count);
+        return payload.toByteArray();
+    }
+
+    // Reads the table written by assemble(); in is positioned right after the caller's header
+    static In[] sections(In in, ByteBuffer payload, int count) throws IOException {
+        In[] sections = new In[count];
+        for (int i = 0; i < count; i++) {
+            int offset = in.readInt();
+            int length = in.readInt();
+            if (offset < 0 || length < 0 || offset + length > payload.limit()) {
+                throw new IOException("Bad section table");
+            }
+            ByteBuffer slice = payload.duplicate();
+            slice.position(offset).limit(offset + length);
+            sections[i] = new In(slice.slice());
+        }
+        return sections;
+    }
+
+    // Text field as a (length + 1, offset) reference into a separate text section.
+    // Text still waiting in a mapped snapshot is copied over as raw bytes without decoding it.
+    static void writeText(Out out, Out text, Supplier<String> pending, Supplier<String> value) {
+        if (pending instanceof LazyText) {
+            ((LazyText) pending).copyTo(out, text);
+            return;
+        }
+        String s = value.get();
+        if (s == null) {
+            out.writeVarInt(0);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeVarInt(bytes.length + 1);
+        out.writeVarInt(text.count);
+        text.write(bytes, 0, bytes.length);
+    }
+
+    static Supplier<String> readText(In rec, ByteBuffer text) throws IOException {
+        int length = rec.readVarInt() - 1;
+        if (length < 0) return () -> null;
+        int offset = rec.readVarInt();
+        if (offset + length > text.limit()) throw new IOException("Text reference out of range");
+        return new LazyText(text, offset, length);
+    }
+
+    // Whether pending text reads the same as another text field, itself pending or already
+    // decoded. Text still in a mapped snapshot is compared as raw bytes, without decoding it.
+    static boolean sameText(Supplier<String> pending, Supplier<String> otherPending, Supplier<String> otherValue) {
+        if (!(pending instanceof LazyText)) {
+            return Objects.equals(pending.get(), (otherPending != null) ? otherPending.get() : otherValue.get());
+        }
+        ByteBuffer bytes = ((LazyText) pending).bytes();
+        if (otherPending instanceof LazyText) return bytes.equals(((LazyText) otherPending).bytes());
+        String other = (otherPending != null) ? otherPending.get() : otherValue.get();
+        return other != null && bytes.equals(ByteBuffer.wrap(other.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Writer: varints, strings as (varint length + 1, 0 = null) + UTF-8.
+    // Unsynchronized growable buffer - ByteArrayOutputStream locks on every byte.
+    static final class Out {
+        byte[] buf;
+        int count;
+
+        Out(int size) {
+            buf = new byte[size];
+        }
+
+        void ensure(int extra) {
+            if (count + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + extra));
+        }
+
+        void write(int b) {
+            ensure(1);
+            buf[count++] = (byte) b;
+        }
+
+        void write(byte[] bytes, int off, int len) {
+            ensure(len);
+            System.arraycopy(bytes, off, buf, count, len);
+            count += len;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, count);
+        }
+
+        void writeVarInt(int v) {
+            writeVarLong(v & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[count++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[count++] = (byte) v;
+        }
+
+        void writeInt(int v) {
+            ensure(4);
+            buf[count++] = (byte) (v >>> 24);
+            buf[count++] = (byte) (v >>> 16);
+            buf[count++] = (byte) (v >>> 8);
+            buf[count++] = (byte) v;
+        }
+
+        void writeZigZag(int v) {
+            writeVarInt((v << 1) ^ (v >> 31));
+        }
+
+        void writeDouble(double d) {
+            long bits = Double.doubleToLongBits(d);
+            for (int shift = 56; shift >= 0; shift -= 8) write((int) (bits >>> shift));
+        }
+
+        void writeString(String s) {
+            if (s == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            write(bytes, 0, bytes.length);
+        }
+
+    }
+
+    // Reader over a (possibly memory-mapped) buffer; refs are (index + 1, 0 = none)
+    static final class In {
+        final ByteBuffer buf;
+
+        In(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        int readVarInt() throws IOException {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() throws IOException {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (!buf.hasRemaining()) throw new IOException("Unexpected end of snapshot");
+                byte b = buf.get();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return result;
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        int readInt() throws IOException {
+            if (buf.remaining() < 4) throw new IOException("Unexpected end of snapshot");
+            return buf.getInt();
+        }
+
+        int readZigZag() throws IOException {
+            int v = readVarInt();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        double readDouble() throws IOException {
+            if (buf.remaining() < 8) throw new IOException("Unexpected end of snapshot");
+            return buf.getDouble();
+        }
+
+        String readString() throws IOException {
+            int length = readVarInt() - 1;
+            if (length < 0) return null;
+            if (length > buf.remaining()) throw new IOException("Unexpected end of snapshot");
+            byte[] bytes = new byte[length];
+            buf.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        <T> T readRef(List<?> entities, Class<T> type) throws IOException {
+            int i = readVarInt() - 1;
+            if (i < 0) return null;
+            if (i >= entities.size()) throw new IOException("Dangling reference " + i);
+            Object e = entities.get(i);
+            return type.isInstance(e) ? type.cast(e) : null;
+        }
+
+        <T> void readRefs(List<?> entities, Class<T> type, List<T> into) throws IOException {
+            int count = readVarInt();
+            for (int i = 0; i < count; i++) {
+                T e = readRef(entities, type);
+                if (e != null) into.add(e);
+            }
+        }
+    }
+
+    // Text left in the mapped snapshot; decoded on first get()
+    static final class LazyText implements Supplier<String> {
+        private final ByteBuffer text;
+        private final int offset;
+        private final int length;
+
+        LazyText(ByteBuffer text, int offset, int length) {
+            this.text = text;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public String get() {
+            byte[] bytes = new byte[length];
+            ByteBuffer view = text.duplicate();
+            view.position(offset);
+            view.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        // The encoded text as a window on the snapshot
+        ByteBuffer bytes() {
+            ByteBuffer view = text.duplicate();
+            view.limit(offset + length);
+            view.position(offset);
+            return view;
+        }
+
+        void copyTo(Out out, Out into) {
+            out.writeVarInt(length + 1);
+            out.writeVarInt(into.count);
+            into.ensure(length);
+            ByteBuffer view = text.duplicate();
+            view.position(offset);
+            view.get(into.buf, into.count, length);
+            into.count += length;
+        }
+    }
+}
@@ -1,28 +1,116 @@
 package data;
 
+import data.ShardCodec.Shard;
 import models.*;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import javax.swing.SwingUtilities;
 
 /**
  * DataManager - central storage + persistence manager for the Seminar Management System
- * Saves/loads a DataStore object to seminar_data.ser using Java serialization.
+ * The DataStore is saved as one shard file per collection (ShardCodec), tied together
+ * by a checksummed manifest per generation (seminar_data.<generation>.ser) - all written
+ * atomically by SnapshotFiles. A checkpoint only rewrites the shards that changed.
+ * Individual changes are appended to a journal segment and folded into the next
+ * checkpoint, so a single change never rewrites the whole store. Shards can be stored
+ * deflated (seminar.compression) for slow or small disks.
+ * Mutations go through transaction(...), which applies a batch of changes atomically
+ * (rolled back in memory if it fails) and persists it with one write.
+ * All disk writes happen on a background PersistenceWriter; use flush() to wait for them.
+ * Commits and loads hold a DirectoryLock, so processes sharing the directory take turns.
+ * A DataWatcher notices commits made by other processes; the store is reloaded and change
+ * listeners are told on the Swing thread. Writes refused because another process committed
+ * first are put on top of its commit during that reload. Reloading is skipped when the VersionStamp of the
+ * files has not moved since our own last load or write, and a reload is merged into the
+ * existing model instances (StoreMerger) rather than replacing them.
  */
 public class DataManager {
     private static DataManager instance;
 
-    private static final String DATA_FILE = "seminar_data.ser";
+    // How soon a change must reach the disk
+    public enum Durability {
+        IMMEDIATE,    // every change is fsynced before the call returns
+        GROUP_COMMIT, // changes within a short window share one write
+        ON_EXIT       // written on flush() / shutdown only
+    }
+
+    private static final File DATA_DIR = new File(".");
+    private static final String DATA_PREFIX = "seminar_data";
+
+    // Pre-generation files, only read when no generation file exists yet
+    private static final String LEGACY_DATA_FILE = "seminar_data.ser";
+    private static final String LEGACY_JOURNAL_FILE = "seminar_data.journal";
+
+    // Checkpoint (rewrite the changed shards and start a new journal) once the journal grows past this
+    private static final long CHECKPOINT_BYTES = 1024 * 1024;
+
+    // How often flush() puts refused writes on top of someone else's commit before giving up
+    private static final int MAX_REBASES = 5;
+
     private DataStore store;
+    private final SnapshotFiles snapshots = new SnapshotFiles(DATA_DIR, DATA_PREFIX); // manifests
+    private final Map<Shard, SnapshotFiles> shardFiles = new EnumMap<>(Shard.class);
+    private final Journal journal = new Journal(DATA_DIR, DATA_PREFIX);
+    private final DirectoryLock lock = new DirectoryLock(DATA_DIR, DATA_PREFIX);
+    private final PersistenceWriter writer;
+    private Durability durability;
+    private int compressionLevel;
+    private long journalBytes; // appended since the last checkpoint
+    private boolean needsMigration; // loaded from a pre-shard snapshot
+
+    private ShardCodec.Manifest manifest; // last checkpoint queued (null before the first one)
+    private ShardCodec.Manifest loadedManifest;
+    private VersionStamp loadedStamp; // disk state the last loadLocked() read
+    private final Set<Shard> dirty = EnumSet.noneOf(Shard.class); // changed since the last checkpoint
+
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+    private Transaction activeTransaction; // innermost transaction() calls join it
 
     private User currentUser;
 
     private DataManager() {
-        store = loadFromDisk();
+        for (Shard shard : Shard.values()) {
+            shardFiles.put(shard, new SnapshotFiles(DATA_DIR, DATA_PREFIX + "." + shard.fileName()));
+        }
+
+        durability = parseDurability(System.getProperty("seminar.durability"));
+        writer = new PersistenceWriter(snapshots, shardFiles, journal, lock, durability,
+                () -> SwingUtilities.invokeLater(this::reloadAndNotify));
+        compressionLevel = parseCompressionLevel(System.getProperty("seminar.compression"));
+        writer.setCompressionLevel(compressionLevel);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "seminar-persistence-shutdown"));
+
+        store = loadLocked(Collections.emptyMap());
+        writer.loaded(loadedStamp);
         if (store == null) {
             store = new DataStore(); // empty (no sample data)
-            saveToDisk();            // create the file the first time
+            List<Long> unreadable = snapshots.generations();
+            if (!unreadable.isEmpty()) store.generation = unreadable.get(unreadable.size() - 1); // never overwrite them
+            saveToDisk();            // create the files the first time
+        } else if (needsMigration) {
+            saveToDisk();            // one-time rewrite of older snapshot formats as shards
         }
+        IdGenerator.setSource(this::generateId); // IDs for entities the models create
+
+        DataWatcher.start(DATA_DIR, DATA_PREFIX, () -> {
+            if (hasExternalChanges()) SwingUtilities.invokeLater(this::reloadAndNotify);
+        });
     }
 
     public static DataManager getInstance() {
@@ -31,141 +119,460 @@ public class DataManager {
     }
 
     // Persistence 
-    private DataStore loadFromDisk() {
-        File f = new File(DATA_FILE);
-        if (!f.exists()) return null;
+    // Load under the directory lock, so no commit lands halfway through (nor is a half-written
+    // append taken for a torn tail and cut off); loadedStamp is what was on disk
+    private DataStore loadLocked(Map<Shard, byte[]> ours) {
+        try {
+            return lock.run(() -> loadStamped(ours));
+        } catch (IOException e) {
+            System.err.println("Failed to lock data directory: " + e.getMessage());
+            return loadStamped(ours); // e.g. a read-only directory can still be opened
+        }
+    }
+
+    private DataStore loadStamped(Map<Shard, byte[]> ours) {
+        loadedStamp = VersionStamp.read(snapshots, journal);
+        return loadFromDisk(ours);
+    }
+
+    // Newest manifest whose shards all verify, plus the journal changes made on top of it
+    private DataStore loadFromDisk(Map<Shard, byte[]> ours) {
+        if (snapshots.generations().isEmpty()) return finishLoad(loadLegacy(), null);
 
+        loadedManifest = null;
+        DataStore loaded = snapshots.loadNewest((payload, format) -> {
+            if (format == SnapshotFiles.FORMAT_MANIFEST) {
+                return loadShards(ShardCodec.decodeManifest(payload), ours);
+            }
+
+            // Single-file snapshot from before sharding
+            needsMigration = true;
+            if (format == SnapshotFiles.FORMAT_BINARY) {
+                DataStore single = BinaryCodec.decode(payload);
+                snapshots.pin(single.generation); // its text is still read lazily from the mapping
+                return single;
+            }
+            byte[] bytes = new byte[payload.remaining()];
+            payload.get(bytes);
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                return (DataStore) in.readObject();
+            }
+        });
+        if (loaded == null) {
+            System.err.println("Failed to load data: no valid snapshot found");
+            return null;
+        }
+        return finishLoad(loaded, loadedManifest);
+    }
+
+    // Decode every shard of a manifest in parallel, then link them together. Shards in ours
+    // (encoded by a checkpoint of ours that was refused) are decoded instead of the files.
+    private DataStore loadShards(ShardCodec.Manifest m, Map<Shard, byte[]> ours) throws IOException {
+        Map<Shard, CompletableFuture<ShardCodec.Part>> pending = new EnumMap<>(Shard.class);
+        for (Shard shard : Shard.values()) {
+            ShardCodec.Entry entry = m.shards.get(shard);
+            byte[] bytes = ours.get(shard);
+            if (entry == null && bytes == null) continue;
+            pending.put(shard, CompletableFuture.supplyAsync(() -> {
+                try {
+                    if (bytes != null) return ShardCodec.decode(shard, ByteBuffer.wrap(bytes));
+                    return shardFiles.get(shard).read(entry.version, (payload, format) -> ShardCodec.decode(shard, payload));
+                } catch (Exception ex) {
+                    throw new CompletionException(ex);
+                }
+            }));
+        }
+
+        Map<Shard, ShardCodec.Part> parts = new EnumMap<>(Shard.class);
+        for (Map.Entry<Shard, CompletableFuture<ShardCodec.Part>> e : pending.entrySet()) {
+            try {
+                parts.put(e.getKey(), e.getValue().join());
+            } catch (CompletionException ex) {
+                Throwable cause = (ex.getCause() != null) ? ex.getCause() : ex;
+                throw new IOException(e.getKey().fileName() + " shard: " + cause.getMessage());
+            }
+        }
+
+        DataStore loaded = ShardCodec.assemble(parts, m.generation);
+        loaded.ids().restore(m.sequences);
+        for (Map.Entry<Shard, ShardCodec.Entry> e : m.shards.entrySet()) {
+            if (ours.containsKey(e.getKey())) continue;
+            shardFiles.get(e.getKey()).pin(e.getValue().version); // lazily read text lives in these mappings
+        }
+        loadedManifest = m;
+        return loaded;
+    }
+
+    // Re-apply the changes made since the snapshot was written
+    private DataStore finishLoad(DataStore loaded, ShardCodec.Manifest loadedFrom) {
+        if (loaded == null) return null;
+
+        int replayed = journal.replay(loaded);
+        manifest = loadedFrom;
+        dirty.clear();
+        // Replayed changes only live in the journal, so the next checkpoint must consider every shard
+        if (replayed > 0 || needsMigration) dirty.addAll(EnumSet.allOf(Shard.class));
+        return loaded;
+    }
+
+    // Headerless seminar_data.ser from before snapshots were versioned; migrated by the constructor
+    private DataStore loadLegacy() {
+        File f = new File(LEGACY_DATA_FILE);
+        if (!f.exists() || f.length() == 0) return null;
+
+        DataStore loaded;
         try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(f))) {
-            return (DataStore) in.readObject();
+            loaded = (DataStore) in.readObject();
         } catch (Exception e) {
             System.err.println("Failed to load data: " + e.getMessage());
             return null;
         }
+
+        Journal.replayFile(new File(LEGACY_JOURNAL_FILE), loaded);
+        needsMigration = true;
+        return loaded;
+    }
+
+    // Run a batch of changes as one unit: all are applied and persisted with a single write,
+    // or - if work throws - none are (the exception is rethrown after rolling back).
+    // Nested calls join the outer transaction.
+    public void transaction(Consumer<Transaction> work) {
+        if (activeTransaction != null) {
+            work.accept(activeTransaction);
+            return;
+        }
+
+        Transaction tx = new Transaction(store);
+        activeTransaction = tx;
+        try {
+            work.accept(tx);
+        } catch (RuntimeException | Error e) {
+            tx.rollback();
+            throw e;
+        } finally {
+            activeTransaction = null;
+        }
+        commit(tx);
     }
 
+    // One write per transaction: its journal records in a single append
+    private void commit(Transaction tx) {
+        if (tx.isEmpty()) return;
+        dirty.addAll(tx.touched());
+
+        if (writer.needsCheckpoint()) {
+            // An earlier write failed - the checkpoint carries this change too
+            checkpoint(EnumSet.allOf(Shard.class), true, false);
+            return;
+        }
+        append(tx.records());
+    }
+
+    private void append(List<byte[]> records) {
+        writer.append(store.generation, records);
+        for (byte[] record : records) journalBytes += Journal.framedSize(record);
+
+        if (journalBytes > CHECKPOINT_BYTES) checkpoint(dirty, false, true);
+        else if (durability == Durability.IMMEDIATE) writer.flush();
+    }
+
+    // Checkpoint every shard that changed. For code that edits models directly rather than through
+    // a transaction, so every shard is a candidate; shards whose bytes did not change are not rewritten.
     public void saveToDisk() {
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(DATA_FILE))) {
-            out.writeObject(store);
-        } catch (Exception e) {
+        checkpoint(EnumSet.allOf(Shard.class), false, false);
+    }
+
+    // Encode the candidate shards here, so later edits cannot leak into them; the write itself is asynchronous.
+    // force rewrites every shard, for when an earlier write failed and the manifest may be ahead of the disk.
+    // journaled: every change it holds is also in a journal record, so it can be dropped if refused.
+    // The generation is past anything on disk, so it never names another process's manifest.
+    private void checkpoint(Set<Shard> candidates, boolean force, boolean journaled) {
+        List<Long> onDisk = snapshots.generations();
+        long newest = onDisk.isEmpty() ? -1 : onDisk.get(onDisk.size() - 1);
+        long generation = Math.max(store.generation, newest) + 1;
+        Map<Shard, ShardCodec.Entry> entries = new EnumMap<>(Shard.class);
+        if (manifest != null) entries.putAll(manifest.shards);
+        Map<Shard, byte[]> changed = new EnumMap<>(Shard.class);
+
+        try {
+            for (Shard shard : Shard.values()) {
+                ShardCodec.Entry current = entries.get(shard);
+                if (!force && current != null && !candidates.contains(shard)) continue;
+
+                byte[] bytes = ShardCodec.encode(shard, store);
+                int crc = checksum(bytes);
+                if (!force && current != null && current.crc == crc && current.length == bytes.length) continue;
+
+                changed.put(shard, bytes);
+                entries.put(shard, new ShardCodec.Entry(generation, crc, bytes.length));
+            }
+        } catch (RuntimeException e) {
             System.err.println("Failed to save data: " + e.getMessage());
+            return;
         }
+
+        store.generation = generation;
+        manifest = new ShardCodec.Manifest(generation, entries, store.ids().snapshot());
+        needsMigration = false;
+        dirty.clear();
+        journalBytes = 0;
+
+        writer.checkpoint(generation, changed, ShardCodec.encodeManifest(manifest), journaled);
+        if (durability == Durability.IMMEDIATE) writer.flush();
+    }
+
+    // Block until every change made so far is on disk
+    public void flush() {
+        if (drain()) SwingUtilities.invokeLater(this::notifyListeners);
     }
 
-    // Reload the data from disk to get the latest changes
-    public void reloadFromDisk() {
-        DataStore reloadedStore = loadFromDisk();
-        if (reloadedStore != null) {
-            store = reloadedStore;
+    // Write everything queued so far. Writes refused because another process committed first
+    // are put on top of its commit and written again; true when that brought in its changes.
+    private boolean drain() {
+        boolean changed = false;
+        for (int attempt = 0; attempt < MAX_REBASES; attempt++) {
+            if (writer.needsCheckpoint()) checkpoint(EnumSet.allOf(Shard.class), true, false);
+            writer.flush();
+            if (!writer.hasRejected()) return changed;
+            changed |= reload();
         }
+        System.err.println("Failed to save data: other processes kept committing first");
+        return changed;
+    }
+
+    // Shutdown hook: refused writes are still rebased before the writer stops
+    private void shutdown() {
+        drain();
+        writer.close();
+    }
+
+    private static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    public Durability getDurability() { return durability; }
+
+    public void setDurability(Durability durability) {
+        if (durability == null) return;
+        this.durability = durability;
+        writer.setDurability(durability);
+    }
+
+    private static Durability parseDurability(String value) {
+        if (value == null) return Durability.GROUP_COMMIT;
+        try {
+            return Durability.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown durability '" + value + "', using GROUP_COMMIT");
+            return Durability.GROUP_COMMIT;
+        }
+    }
+
+    // Deflate level for shard files: 1 (fastest) - 9 (smallest), or 0 to store them plain.
+    // Plain shards are memory-mapped and their text decoded on demand; compressed ones are
+    // inflated into memory when loaded. Takes effect from the next checkpoint.
+    public int getCompressionLevel() { return compressionLevel; }
+
+    public void setCompressionLevel(int level) {
+        if (level < 0 || level > 9) return;
+        compressionLevel = level;
+        writer.setCompressionLevel(level);
+    }
+
+    // Statistics of the most recent checkpoint written, or null before the first one
+    public SaveStats getLastSaveStats() {
+        return writer.lastSave();
+    }
+
+    // "none", "fast", "best" or a level 0-9; defaults to none
+    private static int parseCompressionLevel(String value) {
+        if (value == null) return SnapshotFiles.NO_COMPRESSION;
+        String v = value.trim().toLowerCase();
+        if (v.equals("none")) return SnapshotFiles.NO_COMPRESSION;
+        if (v.equals("fast")) return Deflater.BEST_SPEED;
+        if (v.equals("best")) return Deflater.BEST_COMPRESSION;
+        try {
+            int level = Integer.parseInt(v);
+            if (level >= 0 && level <= 9) return level;
+        } catch (NumberFormatException ignored) {}
+        System.err.println("Unknown compression '" + value + "', storing data uncompressed");
+        return SnapshotFiles.NO_COMPRESSION;
+    }
+
+    // Reload the data from disk to get the latest changes, merged into the existing model
+    // instances so references held by views stay valid. Returns false when nothing changed,
+    // without reading anything unless someone else committed since we last loaded or wrote.
+    public boolean reloadFromDisk() {
+        // Nobody else committed, so our own queued writes can stay queued (ON_EXIT promises that)
+        if (!hasExternalChanges()) return false;
+        boolean changed = drain(); // our own queued writes must land before we read the files back
+        if (!hasExternalChanges()) return changed; // it was our own write in flight
+        return reload() | changed;
+    }
+
+    // Load what is on disk and merge it into the live store. Writes of ours that were refused
+    // because another process committed first are rebased onto that load: our journal records
+    // are replayed on top of it (an operation that no longer applies is skipped) and written
+    // again. Refused checkpoints are only compaction and are dropped - except one holding
+    // changes no record has (saveToDisk, a failed write), whose shards then replace the loaded
+    // ones (whole shards, so there the last writer wins) before the later records are replayed.
+    private boolean reload() {
+        List<PersistenceWriter.Item> refused = writer.takeRejected();
+        int firstRecord = 0;
+        for (int i = 0; i < refused.size(); i++) {
+            PersistenceWriter.Item item = refused.get(i);
+            if (item.manifest != null && !item.journaled) firstRecord = i + 1;
+        }
+        Map<Shard, byte[]> ours = new EnumMap<>(Shard.class); // what the checkpoints up to there wrote
+        for (PersistenceWriter.Item item : refused.subList(0, firstRecord)) {
+            if (item.manifest != null) ours.putAll(item.shards);
+        }
+
+        DataStore reloadedStore = loadLocked(ours);
+        if (reloadedStore == null) {
+            writer.putBack(refused);
+            return false;
+        }
+        List<byte[]> replayed = new ArrayList<>();
+        for (PersistenceWriter.Item item : refused.subList(firstRecord, refused.size())) {
+            if (item.manifest != null) continue;
+            try {
+                Journal.apply(reloadedStore, item.record);
+                replayed.add(item.record);
+            } catch (IOException e) {
+                System.err.println("Skipping journal record: " + e.getMessage());
+            }
+        }
+
+        int changes = StoreMerger.merge(store, reloadedStore);
+        writer.loaded(loadedStamp);
+        if (!ours.isEmpty() || (!replayed.isEmpty() && !journal.segment(store.generation).isFile())) {
+            checkpoint(EnumSet.allOf(Shard.class), false, false);
+        } else if (!replayed.isEmpty()) {
+            dirty.addAll(EnumSet.allOf(Shard.class));
+            append(replayed);
+        }
+        return changes > 0;
+    }
+
+    // True when the files on disk differ from what this process last loaded or wrote
+    private boolean hasExternalChanges() {
+        return writer.externalChange() || !VersionStamp.read(snapshots, journal).equals(writer.stamp());
+    }
+
+    // Called on the Swing thread after the watcher saw another process commit
+    private void reloadAndNotify() {
+        if (reloadFromDisk()) notifyListeners();
+    }
+
+    private void notifyListeners() {
+        for (Runnable listener : changeListeners) listener.run();
+    }
+
+    // Run on the Swing thread whenever another process's changes have been loaded
+    public void addChangeListener(Runnable listener) {
+        if (listener != null) changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(Runnable listener) {
+        changeListeners.remove(listener);
     }
 
     // User management 
     public void addStudent(Student student) {
         if (student == null) return;
-        store.students.add(student);
-        store.users.add(student);
-        saveToDisk();
+        transaction(tx -> tx.addUser(student));
     }
 
     public void addEvaluator(Evaluator evaluator) {
         if (evaluator == null) return;
-        store.evaluators.add(evaluator);
-        store.users.add(evaluator);
-        saveToDisk();
+        transaction(tx -> tx.addUser(evaluator));
     }
 
     public void addCoordinator(Coordinator coordinator) {
         if (coordinator == null) return;
-        store.coordinators.add(coordinator);
-        store.users.add(coordinator);
-        saveToDisk();
+        transaction(tx -> tx.addUser(coordinator));
+    }
+
+    // Register a new account: its user ID, email and phone number are checked and reserved
+    // together with the add, so two registrations cannot claim the same key.
+    // Throws IllegalStateException saying which key is taken.
+    public void registerUser(User user) {
+        if (user == null) return;
+        transaction(tx -> tx.addUser(user));
     }
 
     public User authenticateUser(String userId, String password, String role) {
         if (userId == null || password == null || role == null) return null;
 
-        for (User user : store.users) {
-            if (user == null) continue;
-            if (user.getUserId() == null || user.getPassword() == null || user.getRole() == null) continue;
-
-            if (user.getUserId().equals(userId) &&
-                user.getPassword().equals(password) &&
-                user.getRole().equals(role)) {
-                return user;
-            }
-        }
-        return null;
+        User user = store.findLogin(userId, role);
+        if (user == null || user.getPassword() == null) return null;
+        return user.getPassword().equals(password) ? user : null;
     }
 
+    // Uniqueness checks: user IDs and emails ignore case, phone numbers ignore formatting
     public boolean userIdExists(String userId) {
-        if (userId == null) return false;
-        for (User u : store.users) {
-            if (u != null && u.getUserId() != null && u.getUserId().equalsIgnoreCase(userId)) return true;
-        }
-        return false;
+        return store.findUserIgnoreCase(userId) != null;
     }
 
     public boolean emailExists(String email) {
-        if (email == null || email.trim().isEmpty()) return false;
-        email = email.toLowerCase();
-        for (User u : store.users) {
-            if (u != null && u.getEmail() != null && u.getEmail().toLowerCase().equals(email)) {
-                return true;
-            }
-        }
-        return false;
+        return store.findUserByEmail(email) != null;
     }
 
     public boolean phoneNumberExists(String phoneNumber) {
-        if (phoneNumber == null || phoneNumber.trim().isEmpty()) return false;
-        phoneNumber = phoneNumber.trim();
-        for (User u : store.users) {
-            if (u != null && u.getPhoneNumber() != null && u.getPhoneNumber().equals(phoneNumber)) {
-                return true;
-            }
-        }
-        return false;
+        return store.findUserByPhone(phoneNumber) != null;
     }
 
     // Getters
-    public List<User> getUsers() { return store.users; }
-    public List<Student> getStudents() { return store.students; }
-    public List<Evaluator> getEvaluators() { return store.evaluators; }
-    public List<Coordinator> getCoordinators() { return store.coordinators; }
-    public List<Submission> getSubmissions() { return store.submissions; }
-    public List<Session> getSessions() { return store.sessions; }
-    public List<Evaluation> getEvaluations() { return store.evaluations; }
-    public List<Award> getAwards() { return store.awards; }
+    // Read-only views: changes go through transaction(...) so the ID indexes stay in sync
+    public List<User> getUsers() { return Collections.unmodifiableList(store.users); }
+    public List<Student> getStudents() { return Collections.unmodifiableList(store.students); }
+    public List<Evaluator> getEvaluators() { return Collections.unmodifiableList(store.evaluators); }
+    public List<Coordinator> getCoordinators() { return Collections.unmodifiableList(store.coordinators); }
+    public List<Submission> getSubmissions() { return Collections.unmodifiableList(store.submissions); }
+    public List<Session> getSessions() { return Collections.unmodifiableList(store.sessions); }
+    public List<Evaluation> getEvaluations() { return Collections.unmodifiableList(store.evaluations); }
+    public List<Award> getAwards() { return Collections.unmodifiableList(store.awards); }
 
     // Add entities
     public void addSubmission(Submission submission) {
         if (submission == null) return;
-        store.submissions.add(submission);
-        saveToDisk();
+        transaction(tx -> tx.addSubmission(submission));
     }
 
     public void addSession(Session session) {
         if (session == null) return;
-        store.sessions.add(session);
-        saveToDisk();
+        transaction(tx -> tx.addSession(session));
+    }
+
+    // Add a session the coordinator created; it joins their managed sessions only if the add succeeds
+    public void addSession(Session session, Coordinator owner) {
+        if (session == null) return;
+        transaction(tx -> tx.addSession(session, owner));
     }
 
     public void addEvaluation(Evaluation evaluation) {
         if (evaluation == null) return;
-        store.evaluations.add(evaluation);
-        saveToDisk();
+        transaction(tx -> tx.addEvaluation(evaluation));
     }
     
+    // Re-score a stored evaluation; the rankings and statistics follow the new scores
+    public void updateEvaluation(Evaluation evaluation, int problemClarity, int methodology, int results,
+                                 int presentation, String comments) {
+        if (evaluation == null) return;
+        transaction(tx -> tx.updateEvaluation(evaluation, problemClarity, methodology, results, presentation, comments));
+    }
+
     public void removeEvaluation(Evaluation evaluation) {
         if (evaluation == null) return;
-        store.evaluations.remove(evaluation);
-        saveToDisk();
+        transaction(tx -> tx.removeEvaluation(evaluation));
     }
 
     public void addAward(Award award) {
         if (award == null) return;
-        store.awards.add(award);
-        saveToDisk();
+        transaction(tx -> tx.addAward(award));
     }
 
     // Current user
@@ -174,120 +581,188 @@ public class DataManager {
 
     // Find helpers 
     public Student findStudentById(String studentId) {
-        if (studentId == null) return null;
-        for (Student s : store.students) {
-            if (s != null && studentId.equals(s.getUserId())) return s;
-        }
-        return null;
+        User u = store.findUser(studentId);
+        return (u instanceof Student) ? (Student) u : null;
     }
 
     public Evaluator findEvaluatorById(String evaluatorId) {
-        if (evaluatorId == null) return null;
-        for (Evaluator e : store.evaluators) {
-            if (e != null && evaluatorId.equals(e.getUserId())) return e;
-        }
-        return null;
+        User u = store.findUser(evaluatorId);
+        return (u instanceof Evaluator) ? (Evaluator) u : null;
     }
 
     public Submission findSubmissionById(String submissionId) {
-        if (submissionId == null) return null;
-        for (Submission sub : store.submissions) {
-            if (sub != null && submissionId.equals(sub.getSubmissionId())) return sub;
-        }
-        return null;
+        return store.findSubmission(submissionId);
     }
 
     public Session findSessionById(String sessionId) {
-        if (sessionId == null) return null;
-        for (Session s : store.sessions) {
-            if (s != null && sessionId.equals(s.getSessionId())) return s;
-        }
-        return null;
+        return store.findSession(sessionId);
     }
 
     // Auto ID generation 
-    private String nextId(String prefix) {
-        int max = 0;
+    // Next ID in the persistent sequence for this prefix, e.g. "S" -> S001, S002, ...
+    public String generateId(String prefix) {
+        return store.ids().next(prefix);
+    }
 
-        for (User u : store.users) {
-            if (u == null) continue;
+    // Reserve a block of consecutive IDs with a single allocation, for bulk imports
+    public List<String> reserveIds(String prefix, int count) {
+        return store.ids().reserve(prefix, count);
+    }
 
-            String id = u.getUserId();
-            if (id != null && id.startsWith(prefix)) {
-                try {
-                    int n = Integer.parseInt(id.substring(prefix.length()));
-                    if (n > max) max = n;
-                } catch (NumberFormatException ignored) {}
-            }
-        }
+    public String generateStudentId() { return generateId("S"); }
+    public String generateEvaluatorId() { return generateId("E"); }
+    public String generateCoordinatorId() { return generateId("C"); }
 
-        return String.format("%s%03d", prefix, max + 1);
+    // Submissions whose title, abstract or supervisor contain every word of the query, best match first
+    public List<Submission> searchSubmissions(String query, int limit) {
+        return new ArrayList<>(store.searchSubmissions(query, limit));
     }
 
-    public String generateStudentId() { return nextId("S"); }
-    public String generateEvaluatorId() { return nextId("E"); }
-    public String generateCoordinatorId() { return nextId("C"); }
+    // All sessions in date order; sessions with an unreadable date come last
+    public List<Session> getSessionsByDate() {
+        return store.sessionsInOrder();
+    }
 
-    // Useful filters 
-    // If your Evaluation stores an Evaluator object, use this.
-    public List<Evaluation> getEvaluationsByEvaluator(String evaluatorId) {
-        List<Evaluation> result = new ArrayList<>();
-        if (evaluatorId == null) return result;
+    // Sessions starting in [from, to), in date order; empty when either end is missing
+    public List<Session> getSessionsBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) return new ArrayList<>();
+        return store.schedule().startingBetween(Session.toEpochMinute(from), Session.toEpochMinute(to));
+    }
 
-        for (Evaluation ev : store.evaluations) {
-            if (ev == null) continue;
+    // The next count sessions starting at or after from, in date order; empty without a start
+    public List<Session> getNextSessions(LocalDateTime from, int count) {
+        if (from == null) return new ArrayList<>();
+        return store.schedule().startingFrom(Session.toEpochMinute(from), count);
+    }
 
-            // Some projects store evaluator object; some store evaluatorId string
-            try {
-                if (ev.getEvaluator() != null && evaluatorId.equals(ev.getEvaluator().getUserId())) {
-                    result.add(ev);
-                    continue;
-                }
-            } catch (Exception ignored) {}
+    // Sessions at the venue whose time overlaps the given date and time (ignore: the session being edited)
+    public List<Session> findVenueConflicts(String date, String time, String venue, Session ignore) {
+        long[] slot = SessionSchedule.interval(date, time);
+        List<Session> result = new ArrayList<>();
+        if (slot == null) return result;
+        for (Session s : store.schedule().overlappingAt(venue, slot[0], slot[1])) {
+            if (s != ignore) result.add(s);
+        }
+        return result;
+    }
 
-            try {
-                if (evaluatorId.equals(ev.getEvaluatorId())) {
-                    result.add(ev);
-                }
-            } catch (Exception ignored) {}
+    // Other sessions of this evaluator that overlap the given session
+    public List<Session> findEvaluatorConflicts(Session session, Evaluator evaluator) {
+        List<Session> result = new ArrayList<>();
+        long[] slot = (session == null) ? null : SessionSchedule.interval(session.getDate(), session.getTime());
+        if (slot == null || evaluator == null) return result;
+        for (Session s : store.schedule().overlapping(slot[0], slot[1])) {
+            if (s != session && s.getEvaluators().contains(evaluator)) result.add(s);
         }
+        return result;
+    }
+
+    // Near-duplicate check for a new title/abstract: similar submissions with their estimated
+    // similarity (0-1), most similar first; empty when nothing is close
+    public Map<Submission, Double> findSimilarSubmissions(String title, String abstractText) {
+        return new LinkedHashMap<>(store.findSimilar(title, abstractText));
+    }
+
+    // Groups of near-duplicate submissions across the whole store, largest group first
+    public List<List<Submission>> findDuplicateClusters() {
+        return DuplicateDetector.clusters(new ArrayList<>(store.submissions));
+    }
+
+    // Seminar-wide averages over every evaluation: problem clarity, methodology, results,
+    // presentation, then the total out of 40; all zero without evaluations
+    public double[] getAverageScores() {
+        return store.scores().averages();
+    }
 
+    // Evaluated submissions by average total, highest first, at most limit of them
+    public List<Submission> rankSubmissionsByAverage(int limit) {
+        ScoreColumns columns = store.scores();
+        int[] ranked = columns.topByAverage(limit);
+        List<Submission> result = new ArrayList<>(ranked.length);
+        for (int ordinal : ranked) result.add(columns.submission(ordinal));
         return result;
     }
-    
-    public List<Session> getSessionsByEvaluatorId(String evaluatorId) {
-        List<Session> result = new ArrayList<>();
-        if (evaluatorId == null) return result;
-    
-        for (Session s : store.sessions) {
-            if (s == null) continue;
-    
-            // if Session stores Evaluator objects
-            try {
-                for (Evaluator e : s.getEvaluators()) {
-                    if (e != null && evaluatorId.equals(e.getUserId())) {
-                        result.add(s);
-                        break;
-                    }
-                }
-            } catch (Exception ignored) {}
+
+    // Best Oral, Best Poster and People's Choice for one session (null: every session), read
+    // from the leaderboards; an award without a positive score has no winner
+    public List<Award> computeAwards(Session session) {
+        List<Award> result = new ArrayList<>();
+        for (String category : new String[]{Leaderboards.BEST_ORAL, Leaderboards.BEST_POSTER, Leaderboards.PEOPLES_CHOICE}) {
+            Award award = new Award(category);
+            List<Submission> top = store.leaderboards().top(category, session, 1);
+            if (!top.isEmpty()) {
+                double score = store.leaderboards().score(category, top.get(0));
+                if (score > 0) award.setWinner(top.get(0), score);
+            }
+            result.add(award);
         }
-    
         return result;
     }
 
+    // The best count submissions of an award category in one session (null: every session)
+    public List<Submission> getLeaderboard(String category, Session session, int count) {
+        return store.leaderboards().top(category, session, count);
+    }
+
+    // Score a submission is ranked by in an award category (average, or total for People's Choice)
+    public double getLeaderboardScore(String category, Submission submission) {
+        return store.leaderboards().score(category, submission);
+    }
+
+    // Mean and standard deviation of the totals an evaluator has given (0 when unknown)
+    public double getEvaluatorMeanScore(String evaluatorId) {
+        return store.evaluatorStats().mean(evaluatorId);
+    }
+
+    public double getEvaluatorScoreStdDev(String evaluatorId) {
+        return store.evaluatorStats().stdDev(evaluatorId);
+    }
+
+    // Average of the submission's scores after taking out each evaluator's own mean and spread,
+    // as a z-score: 0 is an average result, +1 one standard deviation above it
+    public double getNormalizedScore(Submission submission) {
+        return store.evaluatorStats().normalizedScore(submission);
+    }
+
+    // Score histograms with medians and percentiles, as snapshots: over every evaluation,
+    // a session's submissions, or one evaluator's evaluations
+    public ScoreDistribution getScoreDistribution() {
+        return store.distributions().overall();
+    }
+
+    public ScoreDistribution getSessionScoreDistribution(Session session) {
+        return store.distributions().ofSession(session);
+    }
+
+    public ScoreDistribution getEvaluatorScoreDistribution(String evaluatorId) {
+        return store.distributions().ofEvaluator(evaluatorId);
+    }
+
+    // Every evaluation's scores as CSV, one row each
+    public void exportScoresCsv(File file) throws IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"))) {
+            store.scores().writeCsv(out);
+        }
+    }
+
+    // Read-only view of a student's submissions, backed by the student-ID index
+    public List<Submission> getSubmissionsByStudent(String studentId) {
+        return Collections.unmodifiableList(store.submissionsOf(studentId));
+    }
+
+    // An evaluator's own workload, straight from the evaluator-ID indexes (copies, safe to modify)
+    public List<Evaluation> getEvaluationsByEvaluator(String evaluatorId) {
+        return new ArrayList<>(store.evaluationsOf(evaluatorId));
+    }
+
+    public List<Session> getSessionsByEvaluatorId(String evaluatorId) {
+        return new ArrayList<>(store.sessionsOf(evaluatorId));
+    }
+
 
     
     public Session findSessionBySubmissionId(String submissionId) {
-        if (submissionId == null) return null;
-    
-        for (Session s : getSessions()) {
-            if (s == null) continue;
-            for (Submission sub : s.getSubmissions()) {
-                if (sub != null && submissionId.equals(sub.getSubmissionId())) return s;
-            }
-        }
-        return null;
+        return store.findSessionOf(submissionId);
     }
 
 }
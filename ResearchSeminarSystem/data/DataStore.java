@@ -2,9 +2,18 @@ package data;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
 import models.*;
 
+// DataStore - the entity lists plus ID -> entity indexes over them.
+// The indexes are built on first lookup and kept in sync by every mutation below;
+// code that fills or rewrites the lists directly (decoders) calls reindex(), and a merge
+// takes what it changes out of the indexes and puts it back through the same hooks.
 public class DataStore implements Serializable {
     private static final long serialVersionUID = 1L;
 
@@ -16,4 +25,505 @@ public class DataStore implements Serializable {
     public List<Session> sessions = new ArrayList<>();
     public List<Evaluation> evaluations = new ArrayList<>();
     public List<Award> awards = new ArrayList<>();
+
+    // Bumped on every snapshot; the journal only replays on top of the generation it was started for
+    public long generation;
+
+    // Primary-key indexes (first entity wins for a duplicated ID, like the scans they replace)
+    private transient Map<String, User> usersById;
+    // Unique credential keys, built together with usersById: case-folded user ID and email,
+    // canonical phone number, and (user ID, role) for login
+    private transient Map<String, User> usersByFoldedId;
+    private transient Map<String, User> usersByEmail;
+    private transient Map<String, User> usersByPhone;
+    private transient Map<String, User> usersByLogin;
+    private transient Map<String, Session> sessionsById;
+    private transient Map<String, Submission> submissionsById;
+    private transient Map<String, Evaluation> evaluationsById;
+    // Reverse index: submission ID -> session whose submission list holds it
+    private transient Map<String, Session> sessionsBySubmission;
+    // Multimaps: student ID -> its submissions; evaluator ID -> its evaluations / the sessions it is assigned to
+    private transient Map<String, List<Submission>> submissionsByStudent;
+    private transient Map<String, List<Evaluation>> evaluationsByEvaluator;
+    private transient Map<String, List<Session>> sessionsByEvaluator;
+
+    // Full-text index over submission titles, abstracts and supervisors
+    private transient SubmissionSearchIndex textIndex;
+    // MinHash/LSH signatures of submission titles and abstracts, for near-duplicate checks
+    private transient DuplicateDetector duplicates;
+
+    // Session intervals by start time, overall and per venue
+    private transient SessionSchedule schedule;
+
+    // Evaluation scores as primitive columns, for seminar-wide aggregates and exports
+    private transient ScoreColumns scores;
+    // Sorted award standings, overall and per session
+    private transient Leaderboards leaderboards;
+    // Running mean and variance of each evaluator's scores
+    private transient EvaluatorStats evaluatorStats;
+    // Score histograms overall, per session and per evaluator
+    private transient ScoreDistributions distributions;
+
+    // Per-prefix ID sequences; saved in the manifest rather than with the entities
+    private transient IdAllocator ids;
+
+    // Mutations (shared by DataManager and journal replay)
+
+    void addUser(User user) {
+        if (user == null) return;
+        if (user instanceof Student) students.add((Student) user);
+        else if (user instanceof Evaluator) evaluators.add((Evaluator) user);
+        else if (user instanceof Coordinator) coordinators.add((Coordinator) user);
+        users.add(user);
+        index(user);
+    }
+
+    void addSubmission(Submission submission) {
+        if (submission == null) return;
+        submissions.add(submission);
+        index(submission);
+
+        Student student = submission.getStudent();
+        if (student != null && !student.getSubmissions().contains(submission)) {
+            student.getSubmissions().add(submission);
+        }
+    }
+
+    void addSession(Session session) {
+        if (session == null) return;
+        sessions.add(session);
+        index(session);
+    }
+
+    void addEvaluation(Evaluation evaluation) {
+        if (evaluation == null) return;
+        evaluations.add(evaluation);
+        index(evaluation);
+
+        Submission sub = evaluation.getSubmission();
+        if (sub != null && !sub.getEvaluations().contains(evaluation)) {
+            sub.addEvaluation(evaluation);
+        }
+        Evaluator evaluator = evaluation.getEvaluator();
+        if (evaluator != null && !evaluator.getEvaluations().contains(evaluation)) {
+            evaluator.getEvaluations().add(evaluation);
+        }
+    }
+
+    void removeEvaluation(Evaluation evaluation) {
+        if (evaluation == null) return;
+        evaluations.remove(evaluation);
+        unindex(evaluation);
+
+        if (evaluation.getSubmission() != null) evaluation.getSubmission().removeEvaluation(evaluation);
+        if (evaluation.getEvaluator() != null) evaluation.getEvaluator().getEvaluations().remove(evaluation);
+    }
+
+    void addAward(Award award) {
+        if (award == null) return;
+        awards.add(award);
+    }
+
+    // Indexes
+
+    // Drop the indexes after the lists were changed behind their back; rebuilt on the next lookup
+    void reindex() {
+        usersById = null;
+        usersByFoldedId = null;
+        usersByEmail = null;
+        usersByPhone = null;
+        usersByLogin = null;
+        sessionsById = null;
+        submissionsById = null;
+        evaluationsById = null;
+        sessionsBySubmission = null;
+        submissionsByStudent = null;
+        evaluationsByEvaluator = null;
+        sessionsByEvaluator = null;
+        textIndex = null;
+        duplicates = null;
+        schedule = null;
+        scores = null;
+        leaderboards = null;
+        evaluatorStats = null;
+        distributions = null;
+    }
+
+    // Keep the indexes in step with an entity added to / removed from its list (no-op until built)
+    void index(User u) {
+        if (usersById == null || u == null) return;
+        if (u.getUserId() != null) {
+            usersById.putIfAbsent(u.getUserId(), u);
+            usersByFoldedId.putIfAbsent(fold(u.getUserId()), u);
+            usersByLogin.putIfAbsent(loginKey(u.getUserId(), u.getRole()), u);
+        }
+        String email = fold(u.getEmail());
+        if (email != null) usersByEmail.putIfAbsent(email, u);
+        String phone = canonicalPhone(u.getPhoneNumber());
+        if (phone != null) usersByPhone.putIfAbsent(phone, u);
+    }
+
+    void unindex(User u) {
+        if (usersById == null || u == null) return;
+        usersById.remove(u.getUserId(), u);
+        usersByFoldedId.remove(fold(u.getUserId()), u);
+        usersByLogin.remove(loginKey(u.getUserId(), u.getRole()), u);
+        usersByEmail.remove(fold(u.getEmail()), u);
+        usersByPhone.remove(canonicalPhone(u.getPhoneNumber()), u);
+    }
+
+    private void buildUserIndexes() {
+        int capacity = Math.max(16, users.size() * 2);
+        usersById = new HashMap<>(capacity);
+        usersByFoldedId = new HashMap<>(capacity);
+        usersByEmail = new HashMap<>(capacity);
+        usersByPhone = new HashMap<>(capacity);
+        usersByLogin = new HashMap<>(capacity);
+        for (User u : users) index(u);
+    }
+
+    // Case-folded key for user IDs and emails; null for a missing or blank value
+    static String fold(String value) {
+        if (value == null || value.trim().isEmpty()) return null;
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Phone number without spaces, dashes or brackets, keeping a leading +; null when blank
+    static String canonicalPhone(String phone) {
+        if (phone == null) return null;
+        StringBuilder sb = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (Character.isDigit(c) || (c == '+' && sb.length() == 0)) sb.append(c);
+        }
+        return (sb.length() == 0) ? null : sb.toString();
+    }
+
+    private static String loginKey(String userId, String role) {
+        return userId + '\n' + role;
+    }
+
+    void index(Session s) {
+        if (s == null) return;
+        if (sessionsById != null && s.getSessionId() != null) sessionsById.putIfAbsent(s.getSessionId(), s);
+        if (schedule != null) schedule.add(s);
+    }
+
+    void unindex(Session s) {
+        if (s == null) return;
+        if (sessionsById != null) sessionsById.remove(s.getSessionId(), s);
+        if (schedule != null) schedule.remove(s);
+    }
+
+    // A session's date, time or venue changed
+    void reschedule(Session s) {
+        if (schedule != null && s != null) schedule.update(s);
+    }
+
+    void index(Submission sub) {
+        if (sub == null) return;
+        if (submissionsById != null && sub.getSubmissionId() != null) submissionsById.putIfAbsent(sub.getSubmissionId(), sub);
+        if (submissionsByStudent != null && sub.getStudent() != null) {
+            put(submissionsByStudent, sub.getStudent().getUserId(), sub);
+        }
+        if (textIndex != null) textIndex.add(sub);
+        if (duplicates != null) duplicates.add(sub);
+        if (leaderboards != null) leaderboards.update(sub); // its presentation type may have changed meanwhile
+    }
+
+    void unindex(Submission sub) {
+        if (sub == null) return;
+        if (submissionsById != null) submissionsById.remove(sub.getSubmissionId(), sub);
+        if (submissionsByStudent != null && sub.getStudent() != null) {
+            drop(submissionsByStudent, sub.getStudent().getUserId(), sub);
+        }
+        if (textIndex != null) textIndex.remove(sub);
+        if (duplicates != null) duplicates.remove(sub);
+    }
+
+    // A submission's searchable text or presentation type changed
+    void reindexText(Submission sub) {
+        if (sub == null) return;
+        if (textIndex != null) textIndex.update(sub);
+        if (duplicates != null) duplicates.update(sub);
+        if (leaderboards != null) leaderboards.update(sub);
+    }
+
+    void index(Evaluation ev) {
+        if (ev == null) return;
+        if (evaluationsById != null && ev.getEvaluationId() != null) evaluationsById.putIfAbsent(ev.getEvaluationId(), ev);
+        if (evaluationsByEvaluator != null && ev.getEvaluator() != null) {
+            put(evaluationsByEvaluator, ev.getEvaluator().getUserId(), ev);
+        }
+        if (scores != null) scores.add(ev);
+        if (leaderboards != null) leaderboards.evaluationAdded(ev);
+        if (evaluatorStats != null) evaluatorStats.add(ev);
+        if (distributions != null) distributions.evaluationAdded(ev);
+    }
+
+    void unindex(Evaluation ev) {
+        if (ev == null) return;
+        if (evaluationsById != null) evaluationsById.remove(ev.getEvaluationId(), ev);
+        if (evaluationsByEvaluator != null && ev.getEvaluator() != null) {
+            drop(evaluationsByEvaluator, ev.getEvaluator().getUserId(), ev);
+        }
+        if (scores != null) scores.remove(ev);
+        if (leaderboards != null) leaderboards.evaluationRemoved(ev);
+        if (evaluatorStats != null) evaluatorStats.remove(ev);
+        if (distributions != null) distributions.evaluationRemoved(ev);
+    }
+
+    // Keep the evaluator -> sessions multimap in step with a session's evaluator list (no-op until built)
+    void indexEvaluator(Session session, Evaluator evaluator) {
+        if (sessionsByEvaluator != null && evaluator != null) put(sessionsByEvaluator, evaluator.getUserId(), session);
+    }
+
+    void unindexEvaluator(Session session, Evaluator evaluator) {
+        if (sessionsByEvaluator != null && evaluator != null) drop(sessionsByEvaluator, evaluator.getUserId(), session);
+    }
+
+    private void buildEvaluatorIndexes() {
+        evaluationsByEvaluator = new HashMap<>(Math.max(16, evaluators.size() * 2));
+        for (Evaluation ev : evaluations) index(ev);
+        sessionsByEvaluator = new HashMap<>(Math.max(16, evaluators.size() * 2));
+        for (Session s : sessions) {
+            if (s == null) continue;
+            for (Evaluator e : s.getEvaluators()) indexEvaluator(s, e);
+        }
+    }
+
+    // Multimap values keep insertion order and hold an item at most once per key
+    private static <T> void put(Map<String, List<T>> map, String key, T item) {
+        if (key == null || item == null) return;
+        List<T> items = map.computeIfAbsent(key, k -> new ArrayList<>());
+        if (!items.contains(item)) items.add(item);
+    }
+
+    private static <T> void drop(Map<String, List<T>> map, String key, T item) {
+        List<T> items = map.get(key);
+        if (items == null) return;
+        items.remove(item);
+        if (items.isEmpty()) map.remove(key);
+    }
+
+    // Keep the reverse index in step with a session's submission list (no-op until built)
+    void indexAssignment(Session session, Submission sub) {
+        if (sessionsBySubmission != null && sub != null && sub.getSubmissionId() != null) {
+            sessionsBySubmission.putIfAbsent(sub.getSubmissionId(), session);
+        }
+        if (leaderboards != null) leaderboards.assigned(session, sub);
+        if (distributions != null) distributions.assigned(session, sub);
+    }
+
+    void unindexAssignment(Session session, Submission sub) {
+        if (sessionsBySubmission != null && sub != null) sessionsBySubmission.remove(sub.getSubmissionId(), session);
+        if (leaderboards != null) leaderboards.unassigned(session, sub);
+        if (distributions != null) distributions.unassigned(session, sub);
+    }
+
+    private void buildAssignments() {
+        sessionsBySubmission = new HashMap<>(Math.max(16, submissions.size() * 2));
+        for (Session s : sessions) {
+            if (s == null) continue;
+            for (Submission sub : s.getSubmissions()) indexAssignment(s, sub);
+        }
+    }
+
+    private static <T> Map<String, T> build(List<T> items, Function<T, String> id) {
+        Map<String, T> map = new HashMap<>(Math.max(16, items.size() * 2));
+        for (T item : items) {
+            if (item != null && id.apply(item) != null) map.putIfAbsent(id.apply(item), item);
+        }
+        return map;
+    }
+
+    IdAllocator ids() {
+        if (ids == null) ids = new IdAllocator(this::highestIdNumber);
+        return ids;
+    }
+
+    // Largest number used by any stored ID of the form prefix + digits, 0 if none
+    private long highestIdNumber(String prefix) {
+        long max = 0;
+        for (User u : users) if (u != null) max = Math.max(max, IdAllocator.numberOf(u.getUserId(), prefix));
+        for (Session s : sessions) if (s != null) max = Math.max(max, IdAllocator.numberOf(s.getSessionId(), prefix));
+        for (Submission sub : submissions) {
+            if (sub != null) max = Math.max(max, IdAllocator.numberOf(sub.getSubmissionId(), prefix));
+        }
+        for (Evaluation ev : evaluations) {
+            if (ev != null) max = Math.max(max, IdAllocator.numberOf(ev.getEvaluationId(), prefix));
+        }
+        for (Award a : awards) if (a != null) max = Math.max(max, IdAllocator.numberOf(a.getAwardId(), prefix));
+        return max;
+    }
+
+    // Lookups
+
+    User findUser(String userId) {
+        if (userId == null) return null;
+        if (usersById == null) buildUserIndexes();
+        return usersById.get(userId);
+    }
+
+    User findUserIgnoreCase(String userId) {
+        String key = fold(userId);
+        if (key == null) return null;
+        if (usersById == null) buildUserIndexes();
+        return usersByFoldedId.get(key);
+    }
+
+    User findUserByEmail(String email) {
+        String key = fold(email);
+        if (key == null) return null;
+        if (usersById == null) buildUserIndexes();
+        return usersByEmail.get(key);
+    }
+
+    User findUserByPhone(String phone) {
+        String key = canonicalPhone(phone);
+        if (key == null) return null;
+        if (usersById == null) buildUserIndexes();
+        return usersByPhone.get(key);
+    }
+
+    // Exact user ID and role, as the login form sends them
+    User findLogin(String userId, String role) {
+        if (userId == null || role == null) return null;
+        if (usersById == null) buildUserIndexes();
+        return usersByLogin.get(loginKey(userId, role));
+    }
+
+    Submission findSubmission(String submissionId) {
+        if (submissionId == null) return null;
+        if (submissionsById == null) submissionsById = build(submissions, Submission::getSubmissionId);
+        return submissionsById.get(submissionId);
+    }
+
+    Session findSession(String sessionId) {
+        if (sessionId == null) return null;
+        if (sessionsById == null) sessionsById = build(sessions, Session::getSessionId);
+        return sessionsById.get(sessionId);
+    }
+
+    // Session whose submission list holds this submission, if any (the first one, like a scan would find)
+    Session findSessionOf(String submissionId) {
+        if (submissionId == null) return null;
+        if (sessionsBySubmission == null) buildAssignments();
+        return sessionsBySubmission.get(submissionId);
+    }
+
+    // Coordinator that manages the session, if any
+    Coordinator ownerOf(Session session) {
+        for (Coordinator c : coordinators) {
+            if (c != null && c.getManagedSessions().contains(session)) return c;
+        }
+        return null;
+    }
+
+    // A student's submissions, in the order they were added; empty for an unknown ID
+    List<Submission> submissionsOf(String studentId) {
+        if (studentId == null) return Collections.emptyList();
+        if (submissionsByStudent == null) {
+            submissionsByStudent = new HashMap<>(Math.max(16, students.size() * 2));
+            for (Submission sub : submissions) index(sub);
+        }
+        return submissionsByStudent.getOrDefault(studentId, Collections.emptyList());
+    }
+
+    // Ranked full-text search; the first search decodes every abstract to build the index
+    List<Submission> searchSubmissions(String query, int limit) {
+        if (textIndex == null) {
+            textIndex = new SubmissionSearchIndex();
+            for (Submission sub : submissions) textIndex.add(sub);
+        }
+        return textIndex.search(query, limit);
+    }
+
+    SessionSchedule schedule() {
+        if (schedule == null) {
+            schedule = new SessionSchedule();
+            for (Session s : sessions) schedule.add(s);
+        }
+        return schedule;
+    }
+
+    ScoreColumns scores() {
+        if (scores == null) {
+            scores = new ScoreColumns();
+            for (Evaluation ev : evaluations) scores.add(ev);
+        }
+        return scores;
+    }
+
+    Leaderboards leaderboards() {
+        if (leaderboards == null) {
+            leaderboards = new Leaderboards();
+            for (Session s : sessions) {
+                if (s == null) continue;
+                for (Submission sub : s.getSubmissions()) leaderboards.assigned(s, sub);
+            }
+            for (Evaluation ev : evaluations) leaderboards.evaluationAdded(ev);
+        }
+        return leaderboards;
+    }
+
+    EvaluatorStats evaluatorStats() {
+        if (evaluatorStats == null) {
+            evaluatorStats = new EvaluatorStats();
+            for (Evaluation ev : evaluations) evaluatorStats.add(ev);
+        }
+        return evaluatorStats;
+    }
+
+    ScoreDistributions distributions() {
+        if (distributions == null) {
+            distributions = new ScoreDistributions();
+            for (Session s : sessions) {
+                if (s == null) continue;
+                for (Submission sub : s.getSubmissions()) distributions.assigned(s, sub);
+            }
+            for (Evaluation ev : evaluations) distributions.evaluationAdded(ev);
+        }
+        return distributions;
+    }
+
+    // Sessions by start time; those whose date cannot be read follow in stored order
+    List<Session> sessionsInOrder() {
+        SessionSchedule index = schedule();
+        List<Session> result = index.inOrder();
+        if (result.size() < sessions.size()) {
+            for (Session s : sessions) {
+                if (!index.contains(s)) result.add(s);
+            }
+        }
+        return result;
+    }
+
+    // Stored submissions whose title and abstract are near copies of this text, most similar first
+    Map<Submission, Double> findSimilar(String title, String abstractText) {
+        if (duplicates == null) {
+            duplicates = new DuplicateDetector();
+            for (Submission sub : submissions) duplicates.add(sub);
+        }
+        return duplicates.similarTo(title, abstractText);
+    }
+
+    // An evaluator's own evaluations / assigned sessions; empty for an unknown ID
+    List<Evaluation> evaluationsOf(String evaluatorId) {
+        if (evaluatorId == null) return Collections.emptyList();
+        if (evaluationsByEvaluator == null) buildEvaluatorIndexes();
+        return evaluationsByEvaluator.getOrDefault(evaluatorId, Collections.emptyList());
+    }
+
+    List<Session> sessionsOf(String evaluatorId) {
+        if (evaluatorId == null) return Collections.emptyList();
+        if (sessionsByEvaluator == null) buildEvaluatorIndexes();
+        return sessionsByEvaluator.getOrDefault(evaluatorId, Collections.emptyList());
+    }
+
+    Evaluation findEvaluation(String evaluationId) {
+        if (evaluationId == null) return null;
+        if (evaluationsById == null) evaluationsById = build(evaluations, Evaluation::getEvaluationId);
+        return evaluationsById.get(evaluationId);
+    }
 }
@@ -0,0 +1,84 @@
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataWatcher - background thread that watches the data directory for committed
+ * snapshot, shard and journal files, and reports a change once the burst of file
+ * events from one commit has settled. It does not decide whether the change is new;
+ * the callback compares version stamps, so our own writes cost one stamp check.
+ */
+class DataWatcher implements Runnable {
+    private static final long SETTLE_MS = 100;
+
+    private final String prefix;
+    private final Runnable onChange;
+    private final WatchService watcher;
+
+    // Returns null when the platform cannot watch the directory (reloads still work, just not pushed)
+    static DataWatcher start(File dir, String prefix, Runnable onChange) {
+        try {
+            DataWatcher w = new DataWatcher(dir.toPath(), prefix, onChange);
+            Thread thread = new Thread(w, "seminar-watcher");
+            thread.setDaemon(true);
+            thread.start();
+            return w;
+        } catch (IOException | UnsupportedOperationException e) {
+            System.err.println("Failed to watch data directory: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private DataWatcher(Path dir, String prefix, Runnable onChange) throws IOException {
+        this.prefix = prefix;
+        this.onChange = onChange;
+        this.watcher = dir.getFileSystem().newWatchService();
+        dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                boolean relevant = drain(key);
+
+                // Wait until the commit has finished writing before looking at it
+                while (true) {
+                    key = watcher.poll(SETTLE_MS, TimeUnit.MILLISECONDS);
+                    if (key == null) break;
+                    relevant |= drain(key);
+                }
+
+                if (relevant) {
+                    try {
+                        onChange.run();
+                    } catch (RuntimeException e) {
+                        System.err.println("Failed to handle data change: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stopped
+        }
+    }
+
+    // Consume a key's events; true if any of them touched our committed files
+    // (temp files are not commits, and the lock file only guards them)
+    private boolean drain(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true;
+                continue;
+            }
+            String name = String.valueOf(event.context());
+            if (name.startsWith(prefix + ".") && !name.endsWith(".tmp") && !name.endsWith(".lock")) relevant = true;
+        }
+        key.reset();
+        return relevant;
+    }
+}
@@ -0,0 +1,33 @@
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * DirectoryLock - exclusive lock on the data directory, shared by every process using it.
+ * Held while a commit is written and while the files are read back, so two processes never
+ * write the journal or a checkpoint at the same time, and a reader never takes another
+ * process's half-written append for a torn tail. The OS lock on the lock file is held per
+ * process, so the monitor keeps this process's threads apart.
+ */
+final class DirectoryLock {
+    interface Work<T> {
+        T run() throws IOException;
+    }
+
+    private final File file;
+
+    DirectoryLock(File dir, String prefix) {
+        this.file = new File(dir, prefix + ".lock");
+    }
+
+    synchronized <T> T run(Work<T> work) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = channel.lock()) {
+            return work.run();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package data;
+
+import models.Submission;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+/**
+ * DuplicateDetector - finds submissions whose title and abstract are near copies of each other.
+ * A text becomes the set of its three-word shingles, summarised by a MinHash signature (the
+ * smallest hash of any shingle under each of HASHES hash functions); the share of equal
+ * positions in two signatures estimates the Jaccard similarity of the shingle sets.
+ * Signatures are split into BANDS bands of ROWS values and every band is hashed into a bucket
+ * (locality-sensitive hashing): texts that are alike share a bucket in some band with high
+ * probability, so a lookup only compares the few submissions in its own buckets.
+ * With 25 bands of 4 rows a pair at 60% similarity becomes a candidate ~97% of the time and one
+ * at 30% ~18%; candidates are then checked against THRESHOLD.
+ */
+final class DuplicateDetector {
+    static final double THRESHOLD = 0.6;
+
+    private static final int BANDS = 25;
+    private static final int ROWS = 4;
+    private static final int HASHES = BANDS * ROWS;
+    private static final int SHINGLE = 3;
+
+    // Buckets larger than this are only compared against their first member when clustering
+    private static final int MAX_PAIRWISE_BUCKET = 64;
+
+    private static final long[] SEEDS = new long[HASHES];
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED5EEDL); // fixed, so signatures are stable
+        for (int i = 0; i < HASHES; i++) SEEDS[i] = random.nextLong();
+    }
+
+    private final Map<Submission, int[]> signatures = new IdentityHashMap<>();
+    private final Map<Long, List<Submission>> buckets = new HashMap<>();
+
+    void add(Submission sub) {
+        if (sub == null || signatures.containsKey(sub)) return;
+        int[] sig = signature(sub.getTitle(), sub.getAbstractText());
+        if (sig == null) return;
+
+        signatures.put(sub, sig);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bandKey(sig, band), k -> new ArrayList<>(1)).add(sub);
+        }
+    }
+
+    void remove(Submission sub) {
+        int[] sig = signatures.remove(sub);
+        if (sig == null) return;
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(sig, band);
+            List<Submission> bucket = buckets.get(key);
+            if (bucket == null) continue;
+            bucket.removeIf(s -> s == sub);
+            if (bucket.isEmpty()) buckets.remove(key);
+        }
+    }
+
+    void update(Submission sub) {
+        remove(sub);
+        add(sub);
+    }
+
+    // Indexed submissions at least THRESHOLD similar to this text, most similar first
+    Map<Submission, Double> similarTo(String title, String abstractText) {
+        int[] sig = signature(title, abstractText);
+        if (sig == null) return Collections.emptyMap();
+
+        Set<Submission> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Map.Entry<Submission, Double>> found = new ArrayList<>();
+        for (int band = 0; band < BANDS; band++) {
+            List<Submission> bucket = buckets.get(bandKey(sig, band));
+            if (bucket == null) continue;
+            for (Submission other : bucket) {
+                if (!seen.add(other)) continue;
+                double similarity = similarity(sig, signatures.get(other));
+                if (similarity >= THRESHOLD) found.add(new AbstractMap.SimpleEntry<>(other, similarity));
+            }
+        }
+
+        found.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+        Map<Submission, Double> result = new LinkedHashMap<>();
+        for (Map.Entry<Submission, Double> e : found) result.put(e.getKey(), e.getValue());
+        return result;
+    }
+
+    // Batch mode: group the given submissions into clusters of near-duplicates (two or more each,
+    // largest first). Texts are read on the calling thread; hashing and band matching run in parallel.
+    static List<List<Submission>> clusters(List<Submission> subs) {
+        int n = subs.size();
+        String[] titles = new String[n];
+        String[] abstracts = new String[n];
+        for (int i = 0; i < n; i++) {
+            Submission sub = subs.get(i);
+            titles[i] = (sub == null) ? null : sub.getTitle();
+            abstracts[i] = (sub == null) ? null : sub.getAbstractText();
+        }
+
+        int[][] sigs = new int[n][];
+        IntStream.range(0, n).parallel().forEach(i -> sigs[i] = signature(titles[i], abstracts[i]));
+
+        // Each band is bucketed on its own; similar pairs found in any band are linked afterwards
+        ConcurrentLinkedQueue<int[]> pairs = new ConcurrentLinkedQueue<>();
+        IntStream.range(0, BANDS).parallel().forEach(band -> {
+            Map<Long, List<Integer>> bandBuckets = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                if (sigs[i] != null) bandBuckets.computeIfAbsent(bandKey(sigs[i], band), k -> new ArrayList<>(1)).add(i);
+            }
+            for (List<Integer> bucket : bandBuckets.values()) {
+                int size = bucket.size();
+                for (int a = 0; a < size; a++) {
+                    int from = (size <= MAX_PAIRWISE_BUCKET) ? a + 1 : (a == 0 ? 1 : size);
+                    for (int b = from; b < size; b++) {
+                        int x = bucket.get(a);
+                        int y = bucket.get(b);
+                        if (similarity(sigs[x], sigs[y]) >= THRESHOLD) pairs.add(new int[]{x, y});
+                    }
+                }
+            }
+        });
+
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) parent[i] = i;
+        for (int[] pair : pairs) {
+            int a = root(parent, pair[0]);
+            int b = root(parent, pair[1]);
+            if (a != b) parent[Math.max(a, b)] = Math.min(a, b);
+        }
+
+        Map<Integer, List<Submission>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (sigs[i] != null) groups.computeIfAbsent(root(parent, i), k -> new ArrayList<>()).add(subs.get(i));
+        }
+        List<List<Submission>> result = new ArrayList<>();
+        for (List<Submission> group : groups.values()) {
+            if (group.size() > 1) result.add(group);
+        }
+        result.sort((a, b) -> Integer.compare(b.size(), a.size()));
+        return result;
+    }
+
+    private static int root(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    // MinHash signature of the title and abstract; null when there is no text
+    static int[] signature(String title, String abstractText) {
+        List<String> tokens = SubmissionSearchIndex.tokenize(title);
+        tokens.addAll(SubmissionSearchIndex.tokenize(abstractText));
+        if (tokens.isEmpty()) return null;
+
+        long[] tokenHashes = new long[tokens.size()];
+        for (int i = 0; i < tokenHashes.length; i++) tokenHashes[i] = mix(tokens.get(i).hashCode());
+
+        int[] sig = new int[HASHES];
+        Arrays.fill(sig, Integer.MAX_VALUE);
+        int width = Math.min(SHINGLE, tokenHashes.length); // very short texts use what they have
+        for (int start = 0; start + width <= tokenHashes.length; start++) {
+            long shingle = 0;
+            for (int k = 0; k < width; k++) shingle = shingle * 0x9E3779B97F4A7C15L + tokenHashes[start + k];
+            for (int h = 0; h < HASHES; h++) {
+                int v = (int) (mix(shingle ^ SEEDS[h]) >>> 33); // non-negative
+                if (v < sig[h]) sig[h] = v;
+            }
+        }
+        return sig;
+    }
+
+    // Share of equal signature positions, an estimate of the Jaccard similarity
+    static double similarity(int[] a, int[] b) {
+        if (a == null || b == null) return 0;
+        int same = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a[i] == b[i]) same++;
+        }
+        return (double) same / HASHES;
+    }
+
+    private static long bandKey(int[] sig, int band) {
+        long key = band;
+        for (int r = band * ROWS; r < (band + 1) * ROWS; r++) key = mix(key * 31 + sig[r]);
+        return key;
+    }
+
+    // 64-bit finalizer (SplitMix64)
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
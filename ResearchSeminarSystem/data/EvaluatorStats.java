@@ -0,0 +1,110 @@
+package data;
+
+import models.Evaluation;
+import models.Submission;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * EvaluatorStats - running mean and variance of each evaluator's total scores (Welford's
+ * method, run backwards for a removal), so an evaluation added or removed costs O(1).
+ * An evaluation's z-score - how far its total lies from its evaluator's mean, in that
+ * evaluator's standard deviations - takes out how strict or generous the evaluator is.
+ * A submission's normalized score is the mean z-score of its evaluations: O(its evaluations).
+ * Evaluators with fewer than two evaluations, or who always give the same total, tell nothing
+ * about their scale yet, and their evaluations count as z = 0.
+ */
+final class EvaluatorStats {
+    private static final class Running {
+        int count;
+        double mean;
+        double m2; // sum of squared differences from the mean
+
+        void add(double x) {
+            count++;
+            double delta = x - mean;
+            mean += delta / count;
+            m2 += delta * (x - mean);
+        }
+
+        void remove(double x) {
+            if (count <= 1) {
+                count = 0;
+                mean = 0;
+                m2 = 0;
+                return;
+            }
+            double delta = x - mean;
+            mean -= delta / (count - 1);
+            m2 -= delta * (x - mean);
+            count--;
+            if (m2 < 0) m2 = 0; // rounding
+        }
+
+        double stdDev() {
+            return (count < 2) ? 0.0 : Math.sqrt(m2 / (count - 1));
+        }
+    }
+
+    private final Map<String, Running> byEvaluator = new HashMap<>();
+    private final Map<Evaluation, Integer> counted = new IdentityHashMap<>(); // total each evaluation added
+
+    void add(Evaluation ev) {
+        String evaluatorId = evaluatorId(ev);
+        if (evaluatorId == null || counted.containsKey(ev)) return;
+        int score = ev.getTotalScore();
+        counted.put(ev, score);
+        byEvaluator.computeIfAbsent(evaluatorId, k -> new Running()).add(score);
+    }
+
+    void remove(Evaluation ev) {
+        Integer score = counted.remove(ev);
+        if (score == null) return;
+        String evaluatorId = evaluatorId(ev);
+        Running r = byEvaluator.get(evaluatorId);
+        if (r == null) return;
+        r.remove(score);
+        if (r.count == 0) byEvaluator.remove(evaluatorId);
+    }
+
+    int count(String evaluatorId) {
+        Running r = byEvaluator.get(evaluatorId);
+        return (r == null) ? 0 : r.count;
+    }
+
+    double mean(String evaluatorId) {
+        Running r = byEvaluator.get(evaluatorId);
+        return (r == null) ? 0.0 : r.mean;
+    }
+
+    double stdDev(String evaluatorId) {
+        Running r = byEvaluator.get(evaluatorId);
+        return (r == null) ? 0.0 : r.stdDev();
+    }
+
+    // z-score of one evaluation against its evaluator's current mean and deviation
+    double zScore(Evaluation ev) {
+        Running r = byEvaluator.get(evaluatorId(ev));
+        if (r == null) return 0.0;
+        double sd = r.stdDev();
+        return (sd == 0.0) ? 0.0 : (ev.getTotalScore() - r.mean) / sd;
+    }
+
+    // Mean z-score of the submission's evaluations; 0 without any
+    double normalizedScore(Submission sub) {
+        if (sub == null) return 0.0;
+        double sum = 0;
+        int n = 0;
+        for (Evaluation ev : sub.getEvaluations()) {
+            if (ev == null || evaluatorId(ev) == null) continue;
+            sum += zScore(ev);
+            n++;
+        }
+        return (n == 0) ? 0.0 : sum / n;
+    }
+
+    private static String evaluatorId(Evaluation ev) {
+        return (ev == null || ev.getEvaluator() == null) ? null : ev.getEvaluator().getUserId();
+    }
+}
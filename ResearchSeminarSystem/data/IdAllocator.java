@@ -0,0 +1,91 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * IdAllocator - one monotonic sequence per ID prefix ("S", "SUB", "EVAL", ...).
+ * A prefix's counter starts at the highest of its saved value and the largest number
+ * already used by a stored ID with that prefix (found with one scan), so IDs written by
+ * older versions or replayed from the journal are never handed out again. After that an
+ * ID costs one atomic increment, and a batch of any size costs one atomic add.
+ * The counters are saved in the manifest of every checkpoint.
+ */
+final class IdAllocator {
+    private final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final Map<String, Long> saved = new ConcurrentHashMap<>(); // from the manifest, until first use
+    private final ToLongFunction<String> highestUsed;
+
+    IdAllocator(ToLongFunction<String> highestUsed) {
+        this.highestUsed = highestUsed;
+    }
+
+    String next(String prefix) {
+        return format(prefix, counter(prefix).incrementAndGet());
+    }
+
+    // Reserve count consecutive IDs at once, e.g. for a bulk import
+    List<String> reserve(String prefix, int count) {
+        if (count < 0) throw new IllegalArgumentException("count must not be negative");
+        long first = counter(prefix).getAndAdd(count) + 1;
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) ids.add(format(prefix, first + i));
+        return ids;
+    }
+
+    static String format(String prefix, long n) {
+        return String.format("%s%03d", prefix, n);
+    }
+
+    // Last value handed out per prefix, for the manifest
+    Map<String, Long> snapshot() {
+        Map<String, Long> values = new HashMap<>(saved);
+        for (Map.Entry<String, AtomicLong> e : counters.entrySet()) values.put(e.getKey(), e.getValue().get());
+        return values;
+    }
+
+    // Counters never move backwards, so restoring an older snapshot is harmless
+    void restore(Map<String, Long> values) {
+        for (Map.Entry<String, Long> e : values.entrySet()) {
+            AtomicLong counter = counters.get(e.getKey());
+            if (counter != null) counter.accumulateAndGet(e.getValue(), Math::max);
+            else saved.merge(e.getKey(), e.getValue(), Math::max);
+        }
+    }
+
+    // Catch up with IDs that arrived without going through this allocator (a reload from disk)
+    void refresh() {
+        for (Map.Entry<String, AtomicLong> e : counters.entrySet()) {
+            e.getValue().accumulateAndGet(highestUsed.applyAsLong(e.getKey()), Math::max);
+        }
+    }
+
+    private AtomicLong counter(String prefix) {
+        AtomicLong counter = counters.get(prefix);
+        if (counter != null) return counter;
+        return counters.computeIfAbsent(prefix, p ->
+                new AtomicLong(Math.max(saved.getOrDefault(p, 0L), highestUsed.applyAsLong(p))));
+    }
+
+    // Numeric part of id if it is prefix followed by digits only (case-insensitive prefix), else -1
+    static long numberOf(String id, String prefix) {
+        if (id == null) return -1;
+        id = id.trim();
+        if (id.length() <= prefix.length() || id.length() - prefix.length() > 18
+                || !id.regionMatches(true, 0, prefix, 0, prefix.length())) {
+            return -1;
+        }
+        long n = 0;
+        for (int i = prefix.length(); i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            n = n * 10 + (c - '0');
+        }
+        return n;
+    }
+}
@@ -0,0 +1,538 @@
+package data;
+
+import models.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Journal - append-only write-ahead log of DataManager mutations.
+ * Each change appends one small framed record ([length][crc32][payload]) instead of
+ * rewriting the whole snapshot. Each segment file is named after (and its header holds)
+ * the snapshot generation the records apply to, so a checkpoint simply starts a new segment.
+ * Every Transaction operation has a record, so replaying them redoes the work on top of any
+ * snapshot - which is also how writes refused after another process's commit are rebased.
+ */
+class Journal {
+    private static final int MAGIC = 0x534D4A31; // "SMJ1"
+    private static final int HEADER_SIZE = 12;   // magic + base generation
+
+    // Record types
+    private static final byte ADD_USER = 1;
+    private static final byte ADD_SUBMISSION = 2;
+    private static final byte ADD_SESSION = 3;
+    private static final byte ADD_EVALUATION = 4;
+    private static final byte REMOVE_EVALUATION = 5;
+    private static final byte ADD_AWARD = 6;
+    private static final byte UPDATE_SUBMISSION = 7;
+    private static final byte DELETE_SUBMISSION = 8;
+    private static final byte UPDATE_SESSION = 9;
+    private static final byte DELETE_SESSION = 10;
+    private static final byte ASSIGN_SUBMISSION = 11;
+    private static final byte UNASSIGN_SUBMISSION = 12;
+    private static final byte ASSIGN_EVALUATOR = 13;
+    private static final byte UNASSIGN_EVALUATOR = 14;
+    private static final byte UPDATE_EVALUATION = 15;
+
+    // User kinds inside ADD_USER
+    private static final byte STUDENT = 1;
+    private static final byte EVALUATOR = 2;
+    private static final byte COORDINATOR = 3;
+
+    private final File dir;
+    private final String prefix;
+
+    Journal(File dir, String prefix) {
+        this.dir = dir;
+        this.prefix = prefix;
+    }
+
+    // One journal segment per snapshot generation, holding the changes made on top of it
+    File segment(long generation) {
+        return new File(dir, String.format("%s.%06d.journal", prefix, generation));
+    }
+
+    // Start an empty segment on top of the given snapshot generation
+    void reset(long baseGeneration) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(segment(baseGeneration));
+             DataOutputStream out = new DataOutputStream(fos)) {
+            out.writeInt(MAGIC);
+            out.writeLong(baseGeneration);
+            out.flush();
+            fos.getFD().sync();
+        }
+    }
+
+    // Appends all records with a single write + fsync (group commit); the caller holds the
+    // DirectoryLock. Returns false when a newer snapshot than expectedBase has been committed
+    // (its segment stays on disk for a while, but is never replayed on top of the newer one),
+    // or when the segment is missing or does not match. The caller must then reload and put
+    // the records on top of what is on disk.
+    boolean append(List<byte[]> records, long expectedBase, long newestGeneration) throws IOException {
+        if (newestGeneration > expectedBase) return false;
+        File file = segment(expectedBase);
+        if (!file.exists()) return false;
+
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        for (byte[] record : records) frames.write(frame(record));
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() < HEADER_SIZE || raf.readInt() != MAGIC || raf.readLong() != expectedBase) {
+                return false;
+            }
+            raf.seek(raf.length());
+            raf.write(frames.toByteArray());
+            raf.getFD().sync();
+        }
+        return true;
+    }
+
+    // Size of the framed record once appended
+    static int framedSize(byte[] record) {
+        return 8 + record.length;
+    }
+
+    // Apply the segment for store.generation. When recovery fell back to an older snapshot,
+    // the newer segments are chained on top so the changes they hold are not lost.
+    int replay(DataStore store) {
+        int applied = replayFile(segment(store.generation), store);
+        while (segment(store.generation + 1).exists()) {
+            store.generation++;
+            applied += replayFile(segment(store.generation), store);
+        }
+        return applied;
+    }
+
+    // Delete segments whose snapshot generation is no longer kept
+    void prune(long oldestGeneration) {
+        File[] files = dir.listFiles((d, name) -> name.startsWith(prefix + ".") && name.endsWith(".journal"));
+        if (files == null || oldestGeneration < 0) return;
+
+        for (File f : files) {
+            String middle = f.getName().substring(prefix.length() + 1, f.getName().length() - ".journal".length());
+            try {
+                if (Long.parseLong(middle) < oldestGeneration) f.delete();
+            } catch (NumberFormatException ignored) {}
+        }
+    }
+
+    // Apply every intact record of one journal file on top of store; returns how many were applied
+    static int replayFile(File file, DataStore store) {
+        if (!file.exists() || file.length() < HEADER_SIZE) return 0;
+
+        int applied = 0;
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            if (buf.getInt() != MAGIC) return 0;
+            if (buf.getLong() != store.generation) return 0; // already folded into the snapshot
+
+            int good = buf.position();
+            while (buf.remaining() >= 8) {
+                int length = buf.getInt();
+                int crc = buf.getInt();
+                if (length <= 0 || length > buf.remaining()) break;
+
+                byte[] payload = new byte[length];
+                buf.get(payload);
+                if (checksum(payload) != crc) break;
+
+                try {
+                    apply(store, payload);
+                    applied++;
+                } catch (Exception e) {
+                    System.err.println("Skipping journal record: " + e.getMessage());
+                }
+                good = buf.position();
+            }
+
+            // Drop a torn tail left by a crash mid-append so later appends stay readable
+            if (good < buf.limit()) {
+                try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                    raf.setLength(good);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to replay journal: " + e.getMessage());
+        }
+        return applied;
+    }
+
+    // Record builders
+
+    static byte[] addUser(User user) {
+        return record(ADD_USER, out -> {
+            String extra = "";
+            byte kind;
+            if (user instanceof Student) {
+                kind = STUDENT;
+                extra = ((Student) user).getSupervisorName();
+            } else if (user instanceof Evaluator) {
+                kind = EVALUATOR;
+                extra = ((Evaluator) user).getExpertise();
+            } else {
+                kind = COORDINATOR;
+                extra = ((Coordinator) user).getDepartment();
+            }
+            out.writeByte(kind);
+            writeString(out, user.getUserId());
+            writeString(out, user.getName());
+            writeString(out, user.getEmail());
+            writeString(out, user.getPassword());
+            writeString(out, user.getPhoneNumber());
+            writeString(out, extra);
+        });
+    }
+
+    static byte[] addSubmission(Submission sub) {
+        return record(ADD_SUBMISSION, out -> {
+            writeString(out, sub.getSubmissionId());
+            writeString(out, sub.getTitle());
+            writeString(out, sub.getAbstractText());
+            writeString(out, sub.getSupervisorName());
+            writeString(out, sub.getPresentationType());
+            writeString(out, sub.getFilePath());
+            writeString(out, sub.getBoardId());
+            writeString(out, sub.getStudent() != null ? sub.getStudent().getUserId() : null);
+        });
+    }
+
+    static byte[] addSession(Session session, Coordinator owner) {
+        return record(ADD_SESSION, out -> {
+            writeString(out, session.getSessionId());
+            writeString(out, session.getDate());
+            writeString(out, session.getTime());
+            writeString(out, session.getVenue());
+            writeString(out, session.getSessionType());
+            writeString(out, owner != null ? owner.getUserId() : null);
+        });
+    }
+
+    static byte[] addEvaluation(Evaluation ev) {
+        return record(ADD_EVALUATION, out -> {
+            writeString(out, ev.getEvaluationId());
+            out.writeInt(ev.getProblemClarity());
+            out.writeInt(ev.getMethodology());
+            out.writeInt(ev.getResults());
+            out.writeInt(ev.getPresentation());
+            writeString(out, ev.getComments());
+            writeString(out, ev.getSubmission() != null ? ev.getSubmission().getSubmissionId() : null);
+            writeString(out, ev.getEvaluator() != null ? ev.getEvaluator().getUserId() : null);
+        });
+    }
+
+    static byte[] removeEvaluation(Evaluation ev) {
+        return record(REMOVE_EVALUATION, out -> writeString(out, ev.getEvaluationId()));
+    }
+
+    static byte[] updateEvaluation(Evaluation ev) {
+        return record(UPDATE_EVALUATION, out -> {
+            writeString(out, ev.getEvaluationId());
+            out.writeInt(ev.getProblemClarity());
+            out.writeInt(ev.getMethodology());
+            out.writeInt(ev.getResults());
+            out.writeInt(ev.getPresentation());
+            writeString(out, ev.getComments());
+        });
+    }
+
+    static byte[] addAward(Award award) {
+        return record(ADD_AWARD, out -> {
+            writeString(out, award.getAwardId());
+            writeString(out, award.getAwardType());
+            writeString(out, award.getWinner() != null ? award.getWinner().getSubmissionId() : null);
+            out.writeDouble(award.getWinningScore());
+        });
+    }
+
+    static byte[] updateSubmission(Submission sub) {
+        return record(UPDATE_SUBMISSION, out -> {
+            writeString(out, sub.getSubmissionId());
+            writeString(out, sub.getTitle());
+            writeString(out, sub.getAbstractText());
+            writeString(out, sub.getSupervisorName());
+            writeString(out, sub.getPresentationType());
+            writeString(out, sub.getFilePath());
+        });
+    }
+
+    static byte[] deleteSubmission(Submission sub) {
+        return record(DELETE_SUBMISSION, out -> writeString(out, sub.getSubmissionId()));
+    }
+
+    static byte[] updateSession(Session session) {
+        return record(UPDATE_SESSION, out -> {
+            writeString(out, session.getSessionId());
+            writeString(out, session.getDate());
+            writeString(out, session.getTime());
+            writeString(out, session.getVenue());
+        });
+    }
+
+    static byte[] deleteSession(Session session) {
+        return record(DELETE_SESSION, out -> writeString(out, session.getSessionId()));
+    }
+
+    // Holds the board ID the assignment gave out, so replay numbers it the same way
+    static byte[] assignSubmission(Coordinator coordinator, Session session, Submission sub) {
+        return record(ASSIGN_SUBMISSION, out -> {
+            writeString(out, coordinator.getUserId());
+            writeString(out, session.getSessionId());
+            writeString(out, sub.getSubmissionId());
+            writeString(out, sub.getBoardId());
+        });
+    }
+
+    static byte[] unassignSubmission(Session session, Submission sub) {
+        return record(UNASSIGN_SUBMISSION, out -> {
+            writeString(out, session.getSessionId());
+            writeString(out, sub.getSubmissionId());
+        });
+    }
+
+    static byte[] assignEvaluator(Coordinator coordinator, Session session, Evaluator evaluator) {
+        return record(ASSIGN_EVALUATOR, out -> {
+            writeString(out, coordinator.getUserId());
+            writeString(out, session.getSessionId());
+            writeString(out, evaluator.getUserId());
+        });
+    }
+
+    static byte[] unassignEvaluator(Session session, Evaluator evaluator) {
+        return record(UNASSIGN_EVALUATOR, out -> {
+            writeString(out, session.getSessionId());
+            writeString(out, evaluator.getUserId());
+        });
+    }
+
+    // Replay
+
+    // Also puts records a stale commit was refused for on top of a fresh load
+    static void apply(DataStore store, byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+
+        switch (type) {
+            case ADD_USER: {
+                byte kind = in.readByte();
+                String id = readString(in);
+                String name = readString(in);
+                String email = readString(in);
+                String password = readString(in);
+                String phone = readString(in);
+                String extra = readString(in);
+                if (store.findUser(id) != null) return;
+
+                User user;
+                if (kind == STUDENT) user = new Student(id, name, email, password, extra);
+                else if (kind == EVALUATOR) user = new Evaluator(id, name, email, password, extra);
+                else user = new Coordinator(id, name, email, password, extra);
+                user.setPhoneNumber(phone);
+                store.addUser(user);
+                break;
+            }
+            case ADD_SUBMISSION: {
+                String id = readString(in);
+                String title = readString(in);
+                String abstractText = readString(in);
+                String supervisor = readString(in);
+                String presentationType = readString(in);
+                String filePath = readString(in);
+                String boardId = readString(in);
+                User owner = store.findUser(readString(in));
+                if (store.findSubmission(id) != null) return;
+
+                Student student = (owner instanceof Student) ? (Student) owner : null;
+                Submission sub = new Submission(id, title, abstractText, supervisor,
+                        presentationType, filePath, student);
+                sub.setBoardId(boardId);
+
+                // Registering a submission also updates the student's default supervisor
+                if (student != null && supervisor != null && !supervisor.trim().isEmpty()) {
+                    student.setSupervisorName(supervisor.trim());
+                }
+                store.addSubmission(sub);
+                break;
+            }
+            case ADD_SESSION: {
+                String id = readString(in);
+                String date = readString(in);
+                String time = readString(in);
+                String venue = readString(in);
+                String sessionType = readString(in);
+                User owner = store.findUser(readString(in));
+                if (store.findSession(id) != null) return;
+
+                Session session = new Session(id, date, time, venue, sessionType);
+                if (owner instanceof Coordinator) {
+                    ((Coordinator) owner).getManagedSessions().add(session);
+                }
+                store.addSession(session);
+                break;
+            }
+            case ADD_EVALUATION: {
+                String id = readString(in);
+                int problemClarity = in.readInt();
+                int methodology = in.readInt();
+                int results = in.readInt();
+                int presentation = in.readInt();
+                String comments = readString(in);
+                Submission sub = store.findSubmission(readString(in));
+                User evaluator = store.findUser(readString(in));
+                if (store.findEvaluation(id) != null) return;
+
+                Evaluation ev = new Evaluation(id, problemClarity, methodology, results, presentation,
+                        comments, sub, (evaluator instanceof Evaluator) ? (Evaluator) evaluator : null);
+                store.addEvaluation(ev);
+                break;
+            }
+            case REMOVE_EVALUATION: {
+                store.removeEvaluation(store.findEvaluation(readString(in)));
+                break;
+            }
+            case ADD_AWARD: {
+                Award award = new Award(readString(in), readString(in));
+                Submission winner = store.findSubmission(readString(in));
+                award.setWinner(winner, in.readDouble());
+                store.addAward(award);
+                break;
+            }
+            case UPDATE_SUBMISSION: {
+                Submission sub = store.findSubmission(readString(in));
+                String title = readString(in);
+                String abstractText = readString(in);
+                String supervisor = readString(in);
+                String presentationType = readString(in);
+                String filePath = readString(in);
+                redo(store, tx -> tx.updateSubmission(sub, title, abstractText, supervisor, presentationType, filePath));
+                break;
+            }
+            case DELETE_SUBMISSION: {
+                Submission sub = store.findSubmission(readString(in));
+                redo(store, tx -> tx.deleteSubmission(sub));
+                break;
+            }
+            case UPDATE_SESSION: {
+                Session session = store.findSession(readString(in));
+                String date = readString(in);
+                String time = readString(in);
+                String venue = readString(in);
+                redo(store, tx -> tx.updateSession(session, date, time, venue));
+                break;
+            }
+            case DELETE_SESSION: {
+                Session session = store.findSession(readString(in));
+                redo(store, tx -> tx.deleteSession(session));
+                break;
+            }
+            case ASSIGN_SUBMISSION: {
+                User owner = store.findUser(readString(in));
+                Session session = store.findSession(readString(in));
+                Submission sub = store.findSubmission(readString(in));
+                String boardId = readString(in);
+                Coordinator coordinator = (owner instanceof Coordinator) ? (Coordinator) owner : null;
+                redo(store, tx -> tx.assignSubmission(coordinator, session, sub));
+                sub.setBoardId(boardId);
+                break;
+            }
+            case UNASSIGN_SUBMISSION: {
+                Session session = store.findSession(readString(in));
+                Submission sub = store.findSubmission(readString(in));
+                redo(store, tx -> tx.unassignSubmission(session, sub));
+                break;
+            }
+            case ASSIGN_EVALUATOR: {
+                User owner = store.findUser(readString(in));
+                Session session = store.findSession(readString(in));
+                User evaluator = store.findUser(readString(in));
+                Coordinator coordinator = (owner instanceof Coordinator) ? (Coordinator) owner : null;
+                redo(store, tx -> tx.assignEvaluator(coordinator, session,
+                        (evaluator instanceof Evaluator) ? (Evaluator) evaluator : null));
+                break;
+            }
+            case UNASSIGN_EVALUATOR: {
+                Session session = store.findSession(readString(in));
+                User evaluator = store.findUser(readString(in));
+                redo(store, tx -> tx.unassignEvaluator(session,
+                        (evaluator instanceof Evaluator) ? (Evaluator) evaluator : null));
+                break;
+            }
+            case UPDATE_EVALUATION: {
+                Evaluation ev = store.findEvaluation(readString(in));
+                int problemClarity = in.readInt();
+                int methodology = in.readInt();
+                int results = in.readInt();
+                int presentation = in.readInt();
+                String comments = readString(in);
+                redo(store, tx -> tx.updateEvaluation(ev, problemClarity, methodology, results, presentation, comments));
+                break;
+            }
+            default:
+                throw new IOException("Unknown journal record type " + type);
+        }
+    }
+
+    // Anything beyond a plain add is redone through a Transaction, so it gets the same checks
+    // and index upkeep; one that no longer applies (say, its session is gone) is rolled back
+    private static void redo(DataStore store, Consumer<Transaction> operation) throws IOException {
+        Transaction tx = new Transaction(store);
+        try {
+            operation.accept(tx);
+        } catch (RuntimeException e) {
+            tx.rollback();
+            throw new IOException(e.getMessage());
+        }
+    }
+
+    // Encoding helpers
+
+    private interface RecordBody {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] record(byte type, RecordBody body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type);
+            body.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // cannot happen for an in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] frame(byte[] payload) {
+        ByteBuffer buf = ByteBuffer.allocate(8 + payload.length);
+        buf.putInt(payload.length);
+        buf.putInt(checksum(payload));
+        buf.put(payload);
+        return buf.array();
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,201 @@
+package data;
+
+import models.Evaluation;
+import models.Session;
+import models.Submission;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Leaderboards - award standings kept sorted as evaluations come and go.
+ * Every evaluated submission that is assigned to a session has a standing (its score total and
+ * evaluation count) in a sorted set per award category, once for the whole seminar and once
+ * for its session. Best Oral and Best Poster rank oral / poster submissions by average score,
+ * People's Choice ranks all of them by total score, as Award.determineWinner does.
+ * An evaluation, assignment or type change moves one standing: O(log n). Reading the top k
+ * is O(log n + k).
+ */
+final class Leaderboards {
+    static final String BEST_ORAL = "Best Oral";
+    static final String BEST_POSTER = "Best Poster";
+    static final String PEOPLES_CHOICE = "People's Choice";
+
+    private static final class Standing {
+        final Submission sub;
+        final long age; // creation order, the last tie-break
+        long total;
+        int count;
+        // As filed in the boards; changed only while detached
+        Session session;
+        boolean oral;
+        boolean poster;
+
+        Standing(Submission sub, long age) {
+            this.sub = sub;
+            this.age = age;
+        }
+    }
+
+    // Higher first; ties go to the lower submission ID, then to the older standing
+    private static final Comparator<Standing> BY_AVERAGE = (a, b) -> {
+        int c = Long.compare(b.total * a.count, a.total * b.count);
+        return (c != 0) ? c : tieBreak(a, b);
+    };
+    private static final Comparator<Standing> BY_TOTAL = (a, b) -> {
+        int c = Long.compare(b.total, a.total);
+        return (c != 0) ? c : tieBreak(a, b);
+    };
+
+    private final Map<Submission, Standing> standings = new IdentityHashMap<>();
+    private final Map<Evaluation, Integer> counted = new IdentityHashMap<>(); // score each evaluation added
+    private long nextAge;
+
+    private final Map<String, TreeSet<Standing>> overall = new HashMap<>();
+    private final Map<Session, Map<String, TreeSet<Standing>>> bySession = new IdentityHashMap<>();
+
+    void evaluationAdded(Evaluation ev) {
+        if (ev == null || ev.getSubmission() == null || counted.containsKey(ev)) return;
+        int score = ev.getTotalScore();
+        counted.put(ev, score);
+
+        Standing st = standing(ev.getSubmission());
+        detach(st);
+        st.total += score;
+        st.count++;
+        attach(st);
+    }
+
+    void evaluationRemoved(Evaluation ev) {
+        Integer score = counted.remove(ev);
+        if (score == null) return;
+        Standing st = standings.get(ev.getSubmission());
+        if (st == null) return;
+
+        detach(st);
+        st.total -= score;
+        st.count--;
+        attach(st);
+        forgetIfIdle(st);
+    }
+
+    void assigned(Session session, Submission sub) {
+        if (session == null || sub == null) return;
+        Standing st = standing(sub);
+        if (st.session != null) return; // first session wins, like the assignment index
+        detach(st);
+        st.session = session;
+        attach(st);
+    }
+
+    void unassigned(Session session, Submission sub) {
+        Standing st = standings.get(sub);
+        if (st == null || st.session != session) return;
+        detach(st);
+        st.session = null;
+        attach(st);
+        forgetIfIdle(st);
+    }
+
+    // The presentation type may have changed
+    void update(Submission sub) {
+        Standing st = standings.get(sub);
+        if (st == null) return;
+        detach(st);
+        attach(st);
+    }
+
+    // Best k submissions of a category, overall (session null) or within one session
+    List<Submission> top(String category, Session session, int k) {
+        NavigableSet<Standing> board = board(category, session, false);
+        List<Submission> result = new ArrayList<>();
+        if (board == null) return result;
+        for (Standing st : board) {
+            if (result.size() >= k) break;
+            result.add(st.sub);
+        }
+        return result;
+    }
+
+    // The submission's score in a category: average for Best Oral / Best Poster, total for People's Choice
+    double score(String category, Submission sub) {
+        Standing st = standings.get(sub);
+        if (st == null || st.count == 0) return 0.0;
+        return PEOPLES_CHOICE.equals(category) ? st.total : (double) st.total / st.count;
+    }
+
+    private Standing standing(Submission sub) {
+        return standings.computeIfAbsent(sub, s -> new Standing(s, nextAge++));
+    }
+
+    private void forgetIfIdle(Standing st) {
+        if (st.count == 0 && st.session == null) standings.remove(st.sub);
+    }
+
+    private void attach(Standing st) {
+        String type = st.sub.getPresentationType();
+        st.oral = "Oral".equalsIgnoreCase(type);
+        st.poster = "Poster".equalsIgnoreCase(type);
+        if (st.count == 0 || st.session == null) return;
+        for (String category : categories(st)) {
+            board(category, null, true).add(st);
+            board(category, st.session, true).add(st);
+        }
+    }
+
+    private void detach(Standing st) {
+        if (st.count == 0 || st.session == null) return;
+        for (String category : categories(st)) {
+            board(category, null, true).remove(st);
+            TreeSet<Standing> board = board(category, st.session, false);
+            if (board != null) {
+                board.remove(st);
+                if (board.isEmpty()) {
+                    Map<String, TreeSet<Standing>> boards = bySession.get(st.session);
+                    boards.remove(category);
+                    if (boards.isEmpty()) bySession.remove(st.session);
+                }
+            }
+        }
+    }
+
+    private static List<String> categories(Standing st) {
+        List<String> categories = new ArrayList<>(2);
+        if (st.oral) categories.add(BEST_ORAL);
+        if (st.poster) categories.add(BEST_POSTER);
+        categories.add(PEOPLES_CHOICE);
+        return categories;
+    }
+
+    private TreeSet<Standing> board(String category, Session session, boolean create) {
+        Map<String, TreeSet<Standing>> boards;
+        if (session == null) {
+            boards = overall;
+        } else {
+            boards = bySession.get(session);
+            if (boards == null) {
+                if (!create) return null;
+                boards = new HashMap<>();
+                bySession.put(session, boards);
+            }
+        }
+        TreeSet<Standing> board = boards.get(category);
+        if (board == null && create) {
+            board = new TreeSet<>(PEOPLES_CHOICE.equals(category) ? BY_TOTAL : BY_AVERAGE);
+            boards.put(category, board);
+        }
+        return board;
+    }
+
+    private static int tieBreak(Standing a, Standing b) {
+        String x = a.sub.getSubmissionId();
+        String y = b.sub.getSubmissionId();
+        int c = (x == null || y == null) ? 0 : x.compareTo(y);
+        return (c != 0) ? c : Long.compare(a.age, b.age);
+    }
+}
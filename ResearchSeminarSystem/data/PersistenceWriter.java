@@ -0,0 +1,389 @@
+package data;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PersistenceWriter - background thread that owns all disk writes for DataManager.
+ * Callers hand over journal records and checkpoints (changed shards + manifest) that
+ * are already encoded, so the UI thread never waits on the disk. Everything queued
+ * inside one commit window is written (and fsynced) together. Commits are made under
+ * the DirectoryLock. Records that would land behind another process's newer checkpoint,
+ * and checkpoints that would replace another process's commit, are refused and handed
+ * back, so DataManager can reload and put them on top.
+ */
+class PersistenceWriter implements Runnable {
+    private static final long GROUP_COMMIT_WINDOW_MS = 50;
+
+    // -Dseminar.verbose=true prints the SaveStats of every checkpoint
+    private static final boolean VERBOSE = Boolean.getBoolean("seminar.verbose");
+
+    // One queued unit of work: a journal record, or a checkpoint when manifest != null
+    static class Item {
+        final long generation;
+        final byte[] record;
+        final Map<ShardCodec.Shard, byte[]> shards; // only the shards that changed
+        final byte[] manifest;
+        final boolean journaled;                    // checkpoint whose changes all have journal records
+        boolean written;                            // on disk, or covered by a checkpoint that is
+
+        Item(long generation, byte[] record, Map<ShardCodec.Shard, byte[]> shards, byte[] manifest,
+             boolean journaled) {
+            this.generation = generation;
+            this.record = record;
+            this.shards = shards;
+            this.manifest = manifest;
+            this.journaled = journaled;
+        }
+    }
+
+    private final SnapshotFiles snapshots;
+    private final Map<ShardCodec.Shard, SnapshotFiles> shardFiles;
+    private final Journal journal;
+    private final DirectoryLock lock;
+    private final Runnable onConflict;
+    private final Thread thread;
+
+    private final ArrayDeque<Item> pending = new ArrayDeque<>();
+    private long submitted;
+    private long committed;
+    private boolean flushRequested;
+    private boolean closed;
+    private final List<Item> rejected = new ArrayList<>(); // refused, oldest first
+
+    private volatile DataManager.Durability durability;
+    private volatile boolean needsCheckpoint;
+    private volatile int compressionLevel = SnapshotFiles.NO_COMPRESSION; // for shard files
+    private volatile SaveStats lastSave;
+
+    private volatile VersionStamp stamp;          // disk state after our last load or commit
+    private volatile boolean externalChange;      // another process committed since then
+    private volatile boolean conflict;            // refusing everything until the next load
+
+    PersistenceWriter(SnapshotFiles snapshots, Map<ShardCodec.Shard, SnapshotFiles> shardFiles,
+                      Journal journal, DirectoryLock lock, DataManager.Durability durability,
+                      Runnable onConflict) {
+        this.snapshots = snapshots;
+        this.shardFiles = shardFiles;
+        this.journal = journal;
+        this.lock = lock;
+        this.onConflict = onConflict;
+        this.durability = durability;
+
+        thread = new Thread(this, "seminar-persistence");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void setDurability(DataManager.Durability durability) {
+        synchronized (this) {
+            this.durability = durability;
+            notifyAll();
+        }
+    }
+
+    void setCompressionLevel(int level) {
+        compressionLevel = level;
+    }
+
+    // Cost of the most recent checkpoint, or null before the first one
+    SaveStats lastSave() {
+        return lastSave;
+    }
+
+    // True when a write failed and only a full snapshot can make memory durable again
+    boolean needsCheckpoint() {
+        return needsCheckpoint;
+    }
+
+    // What is on disk as of our last load or commit; anything else was written by someone else
+    VersionStamp stamp() {
+        return stamp;
+    }
+
+    boolean externalChange() {
+        return externalChange;
+    }
+
+    // Called after a (re)load: the store now reflects this state of the disk
+    void loaded(VersionStamp loadedStamp) {
+        externalChange = false;
+        stamp = loadedStamp;
+        conflict = false;
+    }
+
+    synchronized boolean hasRejected() {
+        return !rejected.isEmpty();
+    }
+
+    // Hand back everything refused so far; it is no longer tracked here
+    synchronized List<Item> takeRejected() {
+        List<Item> taken = new ArrayList<>(rejected);
+        rejected.clear();
+        return taken;
+    }
+
+    // Give back refused items a reload could not use, ahead of anything refused since
+    synchronized void putBack(List<Item> items) {
+        rejected.addAll(0, items);
+    }
+
+    // Queued together, so they are committed in the same batch (one write)
+    synchronized void append(long generation, List<byte[]> records) {
+        for (byte[] record : records) enqueue(new Item(generation, record, null, null, true));
+    }
+
+    synchronized void checkpoint(long generation, Map<ShardCodec.Shard, byte[]> shards, byte[] manifest,
+                                 boolean journaled) {
+        needsCheckpoint = false;
+        enqueue(new Item(generation, null, shards, manifest, journaled));
+    }
+
+    private void enqueue(Item item) {
+        if (closed) System.err.println("Persistence writer is closed; change will not be saved.");
+        pending.add(item);
+        submitted++;
+        notifyAll();
+    }
+
+    // Barrier: returns once everything submitted before the call is on disk
+    void flush() {
+        synchronized (this) {
+            long target = submitted;
+            flushRequested = true;
+            notifyAll();
+
+            while (committed < target && thread.isAlive()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Flush and stop the thread (used from the shutdown hook)
+    void close() {
+        flush();
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            List<Item> batch;
+            long upTo;
+
+            synchronized (this) {
+                try {
+                    while (pending.isEmpty() && !closed) wait();
+                    if (pending.isEmpty()) return;
+
+                    if (durability == DataManager.Durability.GROUP_COMMIT) {
+                        // Let more mutations pile up so they share one write
+                        long deadline = System.currentTimeMillis() + GROUP_COMMIT_WINDOW_MS;
+                        long remaining;
+                        while (!flushRequested && !closed
+                                && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                            wait(remaining);
+                        }
+                    } else if (durability == DataManager.Durability.ON_EXIT) {
+                        while (!flushRequested && !closed
+                                && durability == DataManager.Durability.ON_EXIT) {
+                            wait();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                batch = new ArrayList<>(pending);
+                pending.clear();
+                upTo = submitted;
+                flushRequested = false;
+            }
+
+            boolean refused = commitLocked(batch);
+
+            synchronized (this) {
+                committed = upTo;
+                notifyAll();
+            }
+            if (refused) onConflict.run();
+        }
+    }
+
+    // Commit while holding the directory lock, so nobody writes between our checks and our
+    // writes; true when items were refused because another process committed first
+    private boolean commitLocked(List<Item> batch) {
+        try {
+            return lock.run(() -> {
+                VersionStamp disk = VersionStamp.read(snapshots, journal);
+                // Notice foreign commits before ours move the stamp past them
+                if (stamp != null && !stamp.equals(disk)) externalChange = true;
+
+                // A checkpoint of ours would replace whatever was committed since our last load
+                if (externalChange && hasCheckpoint(batch)) conflict = true;
+
+                // Once something is refused, later items build on it, so they wait for the reload too
+                if (!conflict) commit(batch, disk.generation);
+                if (conflict) refuse(batch);
+                stamp = VersionStamp.read(snapshots, journal);
+                return conflict;
+            });
+        } catch (IOException e) {
+            System.err.println("Failed to lock data directory: " + e.getMessage());
+            needsCheckpoint = true;
+            return false;
+        }
+    }
+
+    private static boolean hasCheckpoint(List<Item> batch) {
+        for (Item item : batch) {
+            if (item.manifest != null) return true;
+        }
+        return false;
+    }
+
+    // Keep what this batch did not get onto disk; the items already written are dropped
+    private void refuse(List<Item> batch) {
+        externalChange = true;
+        synchronized (this) {
+            for (Item item : batch) {
+                if (!item.written) rejected.add(item);
+            }
+        }
+    }
+
+    // newest: the newest manifest generation on disk when the lock was taken
+    private void commit(List<Item> batch, long newest) {
+        // A checkpoint covers every record queued before it, so only the newest manifest is written
+        int start = 0;
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            Item item = batch.get(i);
+            if (item.manifest != null) {
+                // Still finish the outgoing journal segment, so the previous generation
+                // remains a complete fallback if this checkpoint is ever unreadable
+                appendRecords(batch, 0, i, false, newest);
+                if (writeCheckpoint(batch, i)) {
+                    newest = item.generation;
+                    for (int j = 0; j <= i; j++) batch.get(j).written = true;
+                }
+                start = i + 1;
+                break;
+            }
+        }
+        appendRecords(batch, start, batch.size(), true, newest);
+    }
+
+    // Append records [from, to), one write per run of records sharing a journal generation.
+    // When not required, records whose segment was never written are simply dropped.
+    private void appendRecords(List<Item> batch, int from, int to, boolean required, long newest) {
+        List<Item> run = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            Item item = batch.get(i);
+            if (item.manifest != null) continue;
+            if (!run.isEmpty() && item.generation != run.get(0).generation) {
+                appendRun(run, required, newest);
+                run.clear();
+            }
+            run.add(item);
+        }
+        if (!run.isEmpty()) appendRun(run, required, newest);
+    }
+
+    // Shards first, then the manifest that references them - the manifest rename is the commit point.
+    // Returns false when the checkpoint did not commit.
+    private boolean writeCheckpoint(List<Item> batch, int last) {
+        Item item = batch.get(last);
+
+        // The newest manifest may reference shards written by earlier checkpoints in this batch
+        Map<ShardCodec.Shard, Item> newest = new EnumMap<>(ShardCodec.Shard.class);
+        for (int i = 0; i <= last; i++) {
+            Item earlier = batch.get(i);
+            if (earlier.manifest == null) continue;
+            for (ShardCodec.Shard shard : earlier.shards.keySet()) newest.put(shard, earlier);
+        }
+
+        long start = System.nanoTime();
+        long raw = item.manifest.length;
+        long stored = item.manifest.length; // manifests are tiny and always stored plain
+        int level = compressionLevel;
+        try {
+            for (Map.Entry<ShardCodec.Shard, Item> e : newest.entrySet()) {
+                byte[] shard = e.getValue().shards.get(e.getKey());
+                raw += shard.length;
+                stored += shardFiles.get(e.getKey()).write(e.getValue().generation, SnapshotFiles.FORMAT_SHARD,
+                        shard, level);
+            }
+            snapshots.write(item.generation, SnapshotFiles.FORMAT_MANIFEST, item.manifest);
+        } catch (IOException e) {
+            System.err.println("Failed to save data: " + e.getMessage());
+            needsCheckpoint = true;
+            return false;
+        }
+
+        try {
+            journal.reset(item.generation);
+        } catch (IOException e) {
+            // The manifest is committed; only the records queued after it need a new snapshot
+            System.err.println("Failed to reset journal: " + e.getMessage());
+            needsCheckpoint = true;
+            return true;
+        }
+
+        SaveStats stats = new SaveStats(item.generation, newest.size() + 1, raw, stored, System.nanoTime() - start);
+        lastSave = stats;
+        if (VERBOSE) System.out.println(stats);
+
+        prune();
+        return true;
+    }
+
+    // Keep the last few manifests, their journal segments and every shard version they reference
+    private void prune() {
+        long oldest = snapshots.prune();
+        if (oldest < 0) return;
+        journal.prune(oldest);
+
+        ShardCodec.Manifest manifest;
+        try {
+            manifest = snapshots.read(oldest, (payload, format) ->
+                    format == SnapshotFiles.FORMAT_MANIFEST ? ShardCodec.decodeManifest(payload) : null);
+        } catch (Exception e) {
+            return; // cannot tell which shard versions it needs, so keep them all
+        }
+        if (manifest == null) return;
+
+        // Shard versions only grow, so anything older than what the oldest kept manifest uses is unreferenced
+        for (Map.Entry<ShardCodec.Shard, ShardCodec.Entry> e : manifest.shards.entrySet()) {
+            shardFiles.get(e.getKey()).pruneBelow(e.getValue().version);
+        }
+    }
+
+    private void appendRun(List<Item> run, boolean required, long newest) {
+        if (conflict) return; // these build on records that were just refused
+
+        List<byte[]> records = new ArrayList<>(run.size());
+        for (Item item : run) records.add(item.record);
+        try {
+            if (journal.append(records, run.get(0).generation, newest)) {
+                for (Item item : run) item.written = true;
+            } else if (required) {
+                conflict = true; // behind a newer commit: they are reloaded and put on top of it
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to append to journal: " + e.getMessage());
+            if (required) needsCheckpoint = true;
+        }
+    }
+}
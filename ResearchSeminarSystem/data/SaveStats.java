@@ -0,0 +1,44 @@
+package data;
+
+/**
+ * SaveStats - what one checkpoint cost: how many bytes the changed shards encoded to,
+ * how many reached the disk after compression, and how long writing them took.
+ */
+public final class SaveStats {
+    private final long generation;
+    private final int filesWritten;
+    private final long rawBytes;
+    private final long storedBytes;
+    private final long nanos;
+
+    SaveStats(long generation, int filesWritten, long rawBytes, long storedBytes, long nanos) {
+        this.generation = generation;
+        this.filesWritten = filesWritten;
+        this.rawBytes = rawBytes;
+        this.storedBytes = storedBytes;
+        this.nanos = nanos;
+    }
+
+    public long getGeneration() { return generation; }
+    public int getFilesWritten() { return filesWritten; }
+    public long getRawBytes() { return rawBytes; }
+    public long getStoredBytes() { return storedBytes; }
+    public double getMillis() { return nanos / 1_000_000.0; }
+
+    // Stored size as a fraction of the encoded size (1.0 when nothing was compressed)
+    public double getRatio() {
+        return rawBytes == 0 ? 1.0 : (double) storedBytes / rawBytes;
+    }
+
+    // Encoded bytes processed per second, including compression and fsync
+    public double getMegabytesPerSecond() {
+        return nanos == 0 ? 0.0 : (rawBytes / (1024.0 * 1024.0)) / (nanos / 1_000_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Saved generation %d: %d files, %d -> %d bytes (%.0f%%), %.1f ms, %.1f MB/s",
+                generation, filesWritten, rawBytes, storedBytes, getRatio() * 100, getMillis(),
+                getMegabytesPerSecond());
+    }
+}
@@ -0,0 +1,293 @@
+package data;
+
+import models.Evaluation;
+import models.Evaluator;
+import models.Submission;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * ScoreColumns - the four criterion scores of every evaluation in parallel primitive arrays,
+ * with the submission and evaluator of each row as small ordinals, so seminar-wide aggregates,
+ * rankings and exports read a few contiguous arrays instead of walking the object graph.
+ * Rows follow the store's evaluation list through DataStore.index/unindex; a removed row is
+ * filled with the last one. An ordinal is handed out on first sight and released with its
+ * last row, so deleted submissions and evaluators are not held on to; released ordinals are
+ * handed out again. Scores are copied when an evaluation is added, so a stored evaluation is
+ * edited through Transaction.updateEvaluation, which takes its row out and puts it back.
+ */
+final class ScoreColumns {
+    static final int CRITERIA = 4;
+
+    // Row -> scores (0-10 each), owner ordinals and evaluation
+    private short[] clarity = new short[64];
+    private short[] methodology = new short[64];
+    private short[] results = new short[64];
+    private short[] presentation = new short[64];
+    private int[] submissionOrd = new int[64];
+    private int[] evaluatorOrd = new int[64];
+    private String[] evaluationIds = new String[64];
+    private Evaluation[] rows = new Evaluation[64];
+    private int size;
+    private final Map<Evaluation, Integer> rowOf = new IdentityHashMap<>();
+
+    // Ordinal -> submission / evaluator, and back
+    private final Ordinals<Submission> submissions = new Ordinals<>();
+    private final Ordinals<Evaluator> evaluators = new Ordinals<>();
+
+    // Per-submission totals for topByAverage, kept between calls and grown with the ordinals
+    private long[] totalsScratch = new long[16];
+    private int[] countsScratch = new int[16];
+
+    // Small numbers for the owners of live rows, with how many rows each has
+    private static final class Ordinals<T> {
+        private Object[] owners = new Object[16];
+        private String[] ids = new String[16];
+        private int[] rows = new int[16];
+        private int count;              // ordinals ever handed out (released ones included)
+        private int[] free = new int[8];
+        private int freeCount;
+        private final Map<T, Integer> ordinals = new IdentityHashMap<>();
+
+        // Ordinal for one more row of owner; -1 for none
+        int acquire(T owner, String id) {
+            if (owner == null) return -1;
+            Integer ord = ordinals.get(owner);
+            if (ord == null) {
+                ord = (freeCount > 0) ? free[--freeCount] : next();
+                owners[ord] = owner;
+                ids[ord] = id;
+                ordinals.put(owner, ord);
+            }
+            rows[ord]++;
+            return ord;
+        }
+
+        // One row of the ordinal is gone; the last one frees it
+        void release(int ord) {
+            if (ord < 0 || --rows[ord] > 0) return;
+            ordinals.remove(owners[ord]);
+            owners[ord] = null;
+            ids[ord] = null;
+            if (freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+            free[freeCount++] = ord;
+        }
+
+        @SuppressWarnings("unchecked")
+        T owner(int ord) {
+            return (T) owners[ord];
+        }
+
+        String id(int ord) {
+            return (ord < 0) ? null : ids[ord];
+        }
+
+        private int next() {
+            if (count == owners.length) {
+                owners = Arrays.copyOf(owners, count * 2);
+                ids = Arrays.copyOf(ids, count * 2);
+                rows = Arrays.copyOf(rows, count * 2);
+            }
+            return count++;
+        }
+    }
+
+    void add(Evaluation ev) {
+        if (ev == null || rowOf.containsKey(ev)) return;
+        if (size == rows.length) grow(size * 2);
+
+        int row = size++;
+        clarity[row] = narrow(ev.getProblemClarity());
+        methodology[row] = narrow(ev.getMethodology());
+        results[row] = narrow(ev.getResults());
+        presentation[row] = narrow(ev.getPresentation());
+        Submission sub = ev.getSubmission();
+        Evaluator evaluator = ev.getEvaluator();
+        submissionOrd[row] = submissions.acquire(sub, (sub == null) ? null : sub.getSubmissionId());
+        evaluatorOrd[row] = evaluators.acquire(evaluator, (evaluator == null) ? null : evaluator.getUserId());
+        evaluationIds[row] = ev.getEvaluationId();
+        rows[row] = ev;
+        rowOf.put(ev, row);
+    }
+
+    void remove(Evaluation ev) {
+        Integer row = rowOf.remove(ev);
+        if (row == null) return;
+        submissions.release(submissionOrd[row]);
+        evaluators.release(evaluatorOrd[row]);
+
+        int last = --size;
+        if (row != last) {
+            clarity[row] = clarity[last];
+            methodology[row] = methodology[last];
+            results[row] = results[last];
+            presentation[row] = presentation[last];
+            submissionOrd[row] = submissionOrd[last];
+            evaluatorOrd[row] = evaluatorOrd[last];
+            evaluationIds[row] = evaluationIds[last];
+            rows[row] = rows[last];
+            rowOf.put(rows[row], row);
+        }
+        evaluationIds[last] = null;
+        rows[last] = null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Upper bound of the submission ordinals in use
+    int submissionCount() {
+        return submissions.count;
+    }
+
+    // null for a released ordinal
+    Submission submission(int ordinal) {
+        return submissions.owner(ordinal);
+    }
+
+    // Seminar-wide averages: the four criteria in form order, then the total out of 40
+    double[] averages() {
+        long c = 0, m = 0, r = 0, p = 0;
+        for (int i = 0; i < size; i++) {
+            c += clarity[i];
+            m += methodology[i];
+            r += results[i];
+            p += presentation[i];
+        }
+        double[] avg = new double[CRITERIA + 1];
+        if (size == 0) return avg;
+        avg[0] = (double) c / size;
+        avg[1] = (double) m / size;
+        avg[2] = (double) r / size;
+        avg[3] = (double) p / size;
+        avg[4] = (double) (c + m + r + p) / size;
+        return avg;
+    }
+
+    // Totals out of 40 and evaluation counts per submission ordinal; both arrays must hold
+    // submissionCount() entries
+    void totalsBySubmission(long[] totals, int[] counts) {
+        Arrays.fill(totals, 0, submissions.count, 0);
+        Arrays.fill(counts, 0, submissions.count, 0);
+        for (int i = 0; i < size; i++) {
+            int s = submissionOrd[i];
+            if (s < 0) continue;
+            totals[s] += clarity[i] + methodology[i] + results[i] + presentation[i];
+            counts[s]++;
+        }
+    }
+
+    // Ordinals of the (at most k) evaluated submissions with the highest average total, best
+    // first; ties go to the lower ordinal. A heap of the k best so far keeps this O(n log k).
+    int[] topByAverage(int k) {
+        int n = submissions.count;
+        if (totalsScratch.length < n) {
+            int capacity = Math.max(n, totalsScratch.length * 2);
+            totalsScratch = new long[capacity];
+            countsScratch = new int[capacity];
+        }
+        long[] totals = totalsScratch;
+        int[] counts = countsScratch;
+        totalsBySubmission(totals, counts); // clears the first n of each
+
+        int[] heap = new int[Math.max(0, Math.min(k, n))]; // the worst kept one at the root
+        int size = 0;
+        for (int s = 0; s < n && heap.length > 0; s++) {
+            if (counts[s] == 0) continue;
+            if (size < heap.length) {
+                heap[size] = s;
+                siftUp(heap, size++, totals, counts);
+            } else if (better(s, heap[0], totals, counts)) {
+                heap[0] = s;
+                siftDown(heap, size, totals, counts);
+            }
+        }
+
+        // Taking the worst off the root fills the ranking from the back
+        int[] ranked = new int[size];
+        while (size > 0) {
+            ranked[size - 1] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size, totals, counts);
+        }
+        return ranked;
+    }
+
+    // a/b > c/d  <=>  a*d > c*b, so the comparison stays exact
+    private static boolean better(int a, int b, long[] totals, int[] counts) {
+        int c = Long.compare(totals[a] * counts[b], totals[b] * counts[a]);
+        return c > 0 || (c == 0 && a < b);
+    }
+
+    private static void siftUp(int[] heap, int i, long[] totals, int[] counts) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!better(heap[parent], heap[i], totals, counts)) return;
+            swap(heap, parent, i);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, long[] totals, int[] counts) {
+        int i = 0;
+        while (true) {
+            int worst = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && better(heap[worst], heap[left], totals, counts)) worst = left;
+            if (right < size && better(heap[worst], heap[right], totals, counts)) worst = right;
+            if (worst == i) return;
+            swap(heap, worst, i);
+            i = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int t = heap[i];
+        heap[i] = heap[j];
+        heap[j] = t;
+    }
+
+    // One line per evaluation, in row order
+    void writeCsv(Writer out) throws IOException {
+        out.write("evaluation_id,submission_id,evaluator_id,problem_clarity,methodology,results,presentation,total\n");
+        StringBuilder line = new StringBuilder(96);
+        for (int i = 0; i < size; i++) {
+            line.setLength(0);
+            csv(line, evaluationIds[i]).append(',');
+            csv(line, submissions.id(submissionOrd[i])).append(',');
+            csv(line, evaluators.id(evaluatorOrd[i])).append(',');
+            line.append(clarity[i]).append(',')
+                    .append(methodology[i]).append(',')
+                    .append(results[i]).append(',')
+                    .append(presentation[i]).append(',')
+                    .append(clarity[i] + methodology[i] + results[i] + presentation[i]).append('\n');
+            out.append(line);
+        }
+    }
+
+    private void grow(int capacity) {
+        clarity = Arrays.copyOf(clarity, capacity);
+        methodology = Arrays.copyOf(methodology, capacity);
+        results = Arrays.copyOf(results, capacity);
+        presentation = Arrays.copyOf(presentation, capacity);
+        submissionOrd = Arrays.copyOf(submissionOrd, capacity);
+        evaluatorOrd = Arrays.copyOf(evaluatorOrd, capacity);
+        evaluationIds = Arrays.copyOf(evaluationIds, capacity);
+        rows = Arrays.copyOf(rows, capacity);
+    }
+
+    private static short narrow(int score) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, score));
+    }
+
+    private static StringBuilder csv(StringBuilder sb, String value) {
+        if (value == null) return sb;
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return sb.append(value);
+        return sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,122 @@
+package data;
+
+import models.Evaluation;
+import models.ScoreDistribution;
+import models.Session;
+import models.Submission;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ScoreDistributions - score histograms for the whole seminar, per session and per evaluator,
+ * updated as evaluations are added and removed. Each evaluation's scores are remembered when
+ * it is counted, so taking it out again is exact. An evaluation belongs to the session its
+ * submission is assigned to (first session wins, like the assignment index); assigning or
+ * unassigning a submission moves its evaluations between session histograms.
+ */
+final class ScoreDistributions {
+    private static final class Counted {
+        final int[] scores;
+        final Submission sub;
+        final String evaluatorId;
+
+        Counted(Evaluation ev) {
+            this.scores = new int[]{ev.getProblemClarity(), ev.getMethodology(), ev.getResults(), ev.getPresentation()};
+            this.sub = ev.getSubmission();
+            this.evaluatorId = (ev.getEvaluator() == null) ? null : ev.getEvaluator().getUserId();
+        }
+    }
+
+    private final ScoreDistribution overall = new ScoreDistribution();
+    private final Map<Session, ScoreDistribution> bySession = new IdentityHashMap<>();
+    private final Map<String, ScoreDistribution> byEvaluator = new HashMap<>();
+
+    private final Map<Evaluation, Counted> counted = new IdentityHashMap<>();
+    private final Map<Submission, List<Evaluation>> bySubmission = new IdentityHashMap<>();
+    private final Map<Submission, Session> sessionOf = new IdentityHashMap<>();
+
+    void evaluationAdded(Evaluation ev) {
+        if (ev == null || counted.containsKey(ev)) return;
+        Counted c = new Counted(ev);
+        counted.put(ev, c);
+
+        add(overall, c, 1);
+        if (c.evaluatorId != null) add(byEvaluator.computeIfAbsent(c.evaluatorId, k -> new ScoreDistribution()), c, 1);
+        if (c.sub != null) {
+            bySubmission.computeIfAbsent(c.sub, k -> new ArrayList<>(2)).add(ev);
+            Session session = sessionOf.get(c.sub);
+            if (session != null) add(bySession.computeIfAbsent(session, k -> new ScoreDistribution()), c, 1);
+        }
+    }
+
+    void evaluationRemoved(Evaluation ev) {
+        Counted c = counted.remove(ev);
+        if (c == null) return;
+
+        add(overall, c, -1);
+        if (c.evaluatorId != null) {
+            ScoreDistribution d = byEvaluator.get(c.evaluatorId);
+            if (d != null) {
+                add(d, c, -1);
+                if (d.getCount() == 0) byEvaluator.remove(c.evaluatorId);
+            }
+        }
+        if (c.sub != null) {
+            List<Evaluation> evs = bySubmission.get(c.sub);
+            if (evs != null) {
+                evs.removeIf(x -> x == ev);
+                if (evs.isEmpty()) bySubmission.remove(c.sub);
+            }
+            Session session = sessionOf.get(c.sub);
+            if (session != null) takeFromSession(session, c);
+        }
+    }
+
+    void assigned(Session session, Submission sub) {
+        if (session == null || sub == null || sessionOf.containsKey(sub)) return;
+        sessionOf.put(sub, session);
+        List<Evaluation> evs = bySubmission.get(sub);
+        if (evs == null) return;
+        ScoreDistribution d = bySession.computeIfAbsent(session, k -> new ScoreDistribution());
+        for (Evaluation ev : evs) add(d, counted.get(ev), 1);
+    }
+
+    void unassigned(Session session, Submission sub) {
+        if (sub == null || sessionOf.get(sub) != session) return;
+        sessionOf.remove(sub);
+        List<Evaluation> evs = bySubmission.get(sub);
+        if (evs == null) return;
+        for (Evaluation ev : evs) takeFromSession(session, counted.get(ev));
+    }
+
+    // Snapshots, so callers can keep them while the live histograms move on
+    ScoreDistribution overall() {
+        return new ScoreDistribution(overall);
+    }
+
+    ScoreDistribution ofSession(Session session) {
+        ScoreDistribution d = bySession.get(session);
+        return (d == null) ? new ScoreDistribution() : new ScoreDistribution(d);
+    }
+
+    ScoreDistribution ofEvaluator(String evaluatorId) {
+        ScoreDistribution d = byEvaluator.get(evaluatorId);
+        return (d == null) ? new ScoreDistribution() : new ScoreDistribution(d);
+    }
+
+    private void takeFromSession(Session session, Counted c) {
+        ScoreDistribution d = bySession.get(session);
+        if (d == null) return;
+        add(d, c, -1);
+        if (d.getCount() == 0) bySession.remove(session);
+    }
+
+    private static void add(ScoreDistribution d, Counted c, int sign) {
+        int[] s = c.scores;
+        if (sign > 0) d.add(s[0], s[1], s[2], s[3]);
+        else d.remove(s[0], s[1], s[2], s[3]);
+    }
+}
@@ -0,0 +1,144 @@
+package data;
+
+import models.Session;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * SessionSchedule - interval index over session times, for double-booking checks and for
+ * listing sessions in date order. A session occupies [start, start + SESSION_MINUTES) from its
+ * start minute (Session.getStartMinute), or its whole date when it has no time. Sessions whose
+ * date does not parse are not indexed.
+ * Intervals are kept sorted by start, once overall and once per venue. Since no interval is
+ * longer than a day, everything overlapping [start, end) starts in (start - 1 day, end), so an
+ * overlap query is a range lookup plus the few sessions in that range - O(log n + k).
+ * Each session's interval is remembered, so it can be moved after its date, time or venue changed.
+ */
+final class SessionSchedule {
+    static final int SESSION_MINUTES = 120;
+    static final int DAY_MINUTES = 24 * 60;
+
+    private static final class Slot {
+        final long start;
+        final long end;
+        final String venue; // folded, null when blank
+
+        Slot(long start, long end, String venue) {
+            this.start = start;
+            this.end = end;
+            this.venue = venue;
+        }
+    }
+
+    private final TreeMap<Long, List<Session>> byStart = new TreeMap<>();
+    private final Map<String, TreeMap<Long, List<Session>>> byVenue = new HashMap<>();
+    private final Map<Session, Slot> slots = new IdentityHashMap<>();
+
+    void add(Session s) {
+        if (s == null || slots.containsKey(s)) return;
+        long start = s.getStartMinute();
+        if (start == Session.UNSCHEDULED) return;
+
+        Slot slot = new Slot(start, start + (s.hasTime() ? SESSION_MINUTES : DAY_MINUTES),
+                DataStore.fold(s.getVenue()));
+        slots.put(s, slot);
+        byStart.computeIfAbsent(slot.start, k -> new ArrayList<>(1)).add(s);
+        if (slot.venue != null) {
+            byVenue.computeIfAbsent(slot.venue, k -> new TreeMap<>())
+                    .computeIfAbsent(slot.start, k -> new ArrayList<>(1)).add(s);
+        }
+    }
+
+    void remove(Session s) {
+        Slot slot = slots.remove(s);
+        if (slot == null) return;
+        drop(byStart, slot.start, s);
+        if (slot.venue != null) {
+            TreeMap<Long, List<Session>> venue = byVenue.get(slot.venue);
+            if (venue != null) {
+                drop(venue, slot.start, s);
+                if (venue.isEmpty()) byVenue.remove(slot.venue);
+            }
+        }
+    }
+
+    // Date, time or venue changed
+    void update(Session s) {
+        remove(s);
+        add(s);
+    }
+
+    // Sessions overlapping [start, end), in start order
+    List<Session> overlapping(long start, long end) {
+        return overlapping(byStart, start, end);
+    }
+
+    // Sessions at this venue (case-insensitive) overlapping [start, end)
+    List<Session> overlappingAt(String venue, long start, long end) {
+        String key = DataStore.fold(venue);
+        TreeMap<Long, List<Session>> index = (key == null) ? null : byVenue.get(key);
+        return (index == null) ? new ArrayList<>() : overlapping(index, start, end);
+    }
+
+    private List<Session> overlapping(TreeMap<Long, List<Session>> index, long start, long end) {
+        List<Session> result = new ArrayList<>();
+        for (List<Session> sessions : index.subMap(start - DAY_MINUTES, false, end, false).values()) {
+            for (Session s : sessions) {
+                if (slots.get(s).end > start) result.add(s);
+            }
+        }
+        return result;
+    }
+
+    // Sessions starting in [from, to), in start order
+    List<Session> startingBetween(long from, long to) {
+        List<Session> result = new ArrayList<>();
+        if (from >= to) return result;
+        for (List<Session> sessions : byStart.subMap(from, true, to, false).values()) result.addAll(sessions);
+        return result;
+    }
+
+    // The first count sessions starting at or after from; empty for a count of zero or less
+    List<Session> startingFrom(long from, int count) {
+        List<Session> result = new ArrayList<>(Math.min(Math.max(count, 0), slots.size()));
+        if (count <= 0) return result;
+        for (List<Session> sessions : byStart.tailMap(from, true).values()) {
+            for (Session s : sessions) {
+                if (result.size() == count) return result;
+                result.add(s);
+            }
+        }
+        return result;
+    }
+
+    // Every indexed session in start order
+    List<Session> inOrder() {
+        List<Session> result = new ArrayList<>(slots.size());
+        for (List<Session> sessions : byStart.values()) result.addAll(sessions);
+        return result;
+    }
+
+    boolean contains(Session s) {
+        return slots.containsKey(s);
+    }
+
+    private static void drop(TreeMap<Long, List<Session>> index, long start, Session s) {
+        List<Session> sessions = index.get(start);
+        if (sessions == null) return;
+        sessions.removeIf(x -> x == s);
+        if (sessions.isEmpty()) index.remove(start);
+    }
+
+    // [start, end) in minutes for a date and an optional time (see Session.parseStartMinute);
+    // null when the date or time cannot be read
+    static long[] interval(String date, String time) {
+        long start = Session.parseStartMinute(date, time);
+        if (start == Session.UNSCHEDULED) return null;
+        boolean timed = time != null && !time.trim().isEmpty();
+        return new long[]{start, start + (timed ? SESSION_MINUTES : DAY_MINUTES)};
+    }
+}
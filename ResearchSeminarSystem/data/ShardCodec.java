@@ -0,0 +1,448 @@
+package data;
+
+import models.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * ShardCodec - binary format for the per-collection shard files and the manifest that ties them together.
+ * Each shard holds one collection: its records, the relationship lists owned by those
+ * entities (written as IDs, so a shard stays valid when another shard is rewritten),
+ * and a text section for bulky fields that are decoded lazily. Shards decode
+ * independently; assemble() then resolves the IDs in a single link phase.
+ */
+class ShardCodec {
+    static final int VERSION = 1;
+    static final int MANIFEST_VERSION = 2; // 2 adds the ID sequences
+
+    enum Shard {
+        USERS, SESSIONS, SUBMISSIONS, EVALUATIONS, AWARDS;
+
+        // File name part, e.g. seminar_data.users.000007.ser
+        String fileName() {
+            return name().toLowerCase();
+        }
+    }
+
+    // Sections of one shard
+    private static final int RECORDS = 0;
+    private static final int LINKS = 1;
+    private static final int TEXT = 2;
+    private static final int SECTION_COUNT = 3;
+
+    // User kinds
+    private static final int STUDENT = 1;
+    private static final int EVALUATOR = 2;
+    private static final int COORDINATOR = 3;
+
+    private ShardCodec() {}
+
+    // Manifest: which version of each shard makes up one generation
+
+    static final class Entry {
+        final long version; // generation the shard was last written in
+        final int crc;
+        final int length;
+
+        Entry(long version, int crc, int length) {
+            this.version = version;
+            this.crc = crc;
+            this.length = length;
+        }
+    }
+
+    static final class Manifest {
+        final long generation;
+        final Map<Shard, Entry> shards;
+        final Map<String, Long> sequences; // last ID handed out per prefix
+
+        Manifest(long generation, Map<Shard, Entry> shards, Map<String, Long> sequences) {
+            this.generation = generation;
+            this.shards = shards;
+            this.sequences = sequences;
+        }
+    }
+
+    static byte[] encodeManifest(Manifest manifest) {
+        BinaryIO.Out out = new BinaryIO.Out(128);
+        out.writeVarInt(MANIFEST_VERSION);
+        out.writeVarLong(manifest.generation);
+        out.writeVarInt(manifest.shards.size());
+        for (Map.Entry<Shard, Entry> e : manifest.shards.entrySet()) {
+            out.writeString(e.getKey().name());
+            out.writeVarLong(e.getValue().version);
+            out.writeInt(e.getValue().crc);
+            out.writeVarInt(e.getValue().length);
+        }
+        out.writeVarInt(manifest.sequences.size());
+        for (Map.Entry<String, Long> e : manifest.sequences.entrySet()) {
+            out.writeString(e.getKey());
+            out.writeVarLong(e.getValue());
+        }
+        return out.toByteArray();
+    }
+
+    static Manifest decodeManifest(ByteBuffer payload) throws IOException {
+        BinaryIO.In in = new BinaryIO.In(payload);
+        int version = in.readVarInt();
+        if (version < 1 || version > MANIFEST_VERSION) throw new IOException("Unsupported manifest version " + version);
+        long generation = in.readVarLong();
+
+        Map<Shard, Entry> shards = new EnumMap<>(Shard.class);
+        int count = in.readVarInt();
+        for (int i = 0; i < count; i++) {
+            Shard shard;
+            try {
+                shard = Shard.valueOf(in.readString());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IOException("Unknown shard in manifest");
+            }
+            shards.put(shard, new Entry(in.readVarLong(), in.readInt(), in.readVarInt()));
+        }
+
+        Map<String, Long> sequences = new HashMap<>();
+        if (version >= 2) {
+            int sequenceCount = in.readVarInt();
+            for (int i = 0; i < sequenceCount; i++) sequences.put(in.readString(), in.readVarLong());
+        }
+        return new Manifest(generation, shards, sequences);
+    }
+
+    // Encoding
+
+    static byte[] encode(Shard shard, DataStore store) {
+        BinaryIO.Out records = new BinaryIO.Out(1024);
+        BinaryIO.Out links = new BinaryIO.Out(256);
+        BinaryIO.Out text = new BinaryIO.Out(256);
+
+        switch (shard) {
+            case USERS:
+                records.writeVarInt(store.users.size());
+                for (User u : store.users) {
+                    if (u instanceof Student) {
+                        Student s = (Student) u;
+                        writeUser(records, STUDENT, u, s.getSupervisorName());
+                        writeIds(links, s.getSubmissions());
+                    } else if (u instanceof Evaluator) {
+                        Evaluator e = (Evaluator) u;
+                        writeUser(records, EVALUATOR, u, e.getExpertise());
+                        writeIds(links, e.getEvaluations());
+                        writeIds(links, e.getAssignedSessions());
+                    } else {
+                        Coordinator c = (Coordinator) u;
+                        writeUser(records, COORDINATOR, u, c.getDepartment());
+                        writeIds(links, c.getManagedSessions());
+                    }
+                }
+                break;
+            case SESSIONS:
+                records.writeVarInt(store.sessions.size());
+                for (Session s : store.sessions) {
+                    records.writeString(s.getSessionId());
+                    records.writeString(s.getDate());
+                    records.writeString(s.getTime());
+                    records.writeString(s.getVenue());
+                    records.writeString(s.getSessionType());
+                    writeIds(links, s.getSubmissions());
+                    writeIds(links, s.getEvaluators());
+                }
+                break;
+            case SUBMISSIONS:
+                records.writeVarInt(store.submissions.size());
+                for (Submission sub : store.submissions) {
+                    records.writeString(sub.getSubmissionId());
+                    records.writeString(sub.getTitle());
+                    BinaryIO.writeText(records, text, sub.getAbstractTextLoader(), sub::getAbstractText);
+                    records.writeString(sub.getSupervisorName());
+                    records.writeString(sub.getPresentationType());
+                    records.writeString(sub.getFilePath());
+                    records.writeString(sub.getBoardId());
+                    records.writeString(sub.getStudent() != null ? sub.getStudent().getUserId() : null);
+                    records.writeString(sub.getSession() != null ? sub.getSession().getSessionId() : null);
+                    writeIds(links, sub.getEvaluations());
+                }
+                break;
+            case EVALUATIONS:
+                records.writeVarInt(store.evaluations.size());
+                for (Evaluation ev : store.evaluations) {
+                    records.writeString(ev.getEvaluationId());
+                    records.writeZigZag(ev.getProblemClarity());
+                    records.writeZigZag(ev.getMethodology());
+                    records.writeZigZag(ev.getResults());
+                    records.writeZigZag(ev.getPresentation());
+                    BinaryIO.writeText(records, text, ev.getCommentsLoader(), ev::getComments);
+                    records.writeString(ev.getSubmission() != null ? ev.getSubmission().getSubmissionId() : null);
+                    records.writeString(ev.getEvaluator() != null ? ev.getEvaluator().getUserId() : null);
+                }
+                break;
+            case AWARDS:
+                records.writeVarInt(store.awards.size());
+                for (Award a : store.awards) {
+                    records.writeString(a.getAwardId());
+                    records.writeString(a.getAwardType());
+                    records.writeString(a.getWinner() != null ? a.getWinner().getSubmissionId() : null);
+                    records.writeDouble(a.getWinningScore());
+                }
+                break;
+        }
+
+        BinaryIO.Out head = new BinaryIO.Out(8);
+        head.writeVarInt(VERSION);
+        return BinaryIO.assemble(head, new BinaryIO.Out[] { records, links, text });
+    }
+
+    private static void writeUser(BinaryIO.Out out, int kind, User u, String extra) {
+        out.writeVarInt(kind);
+        out.writeString(u.getUserId());
+        out.writeString(u.getName());
+        out.writeString(u.getEmail());
+        out.writeString(u.getPassword());
+        out.writeString(u.getPhoneNumber());
+        out.writeString(extra);
+    }
+
+    private static void writeIds(BinaryIO.Out out, List<?> entities) {
+        List<String> ids = new ArrayList<>(entities.size());
+        for (Object e : entities) {
+            String id = idOf(e);
+            if (id != null) ids.add(id);
+        }
+        out.writeVarInt(ids.size());
+        for (String id : ids) out.writeString(id);
+    }
+
+    private static String idOf(Object e) {
+        if (e instanceof User) return ((User) e).getUserId();
+        if (e instanceof Session) return ((Session) e).getSessionId();
+        if (e instanceof Submission) return ((Submission) e).getSubmissionId();
+        if (e instanceof Evaluation) return ((Evaluation) e).getEvaluationId();
+        return null;
+    }
+
+    // Decoding
+
+    // ID lookup for the link phase; the first entity with a given ID wins
+    static final class Ids {
+        final Map<String, User> users = new HashMap<>();
+        final Map<String, Session> sessions = new HashMap<>();
+        final Map<String, Submission> submissions = new HashMap<>();
+        final Map<String, Evaluation> evaluations = new HashMap<>();
+    }
+
+    private interface Linker {
+        void link(Ids ids);
+    }
+
+    // One decoded shard: its entities plus the references still to be resolved
+    static final class Part {
+        final Shard shard;
+        final List<Object> entities;
+        private final Linker linker;
+
+        private Part(Shard shard, List<Object> entities, Linker linker) {
+            this.shard = shard;
+            this.entities = entities;
+            this.linker = linker;
+        }
+    }
+
+    // Safe to run for several shards in parallel: only touches the entities it creates
+    static Part decode(Shard shard, ByteBuffer payload) throws IOException {
+        BinaryIO.In in = new BinaryIO.In(payload);
+        int version = in.readVarInt();
+        if (version != VERSION) throw new IOException("Unsupported shard version " + version);
+
+        BinaryIO.In[] sections = BinaryIO.sections(in, payload, SECTION_COUNT);
+        BinaryIO.In rec = sections[RECORDS];
+        BinaryIO.In links = sections[LINKS];
+        ByteBuffer text = sections[TEXT].buf;
+
+        int count = rec.readVarInt();
+        List<Object> entities = new ArrayList<>(count);
+
+        switch (shard) {
+            case USERS: {
+                List<String[]> first = new ArrayList<>(count);
+                List<String[]> second = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    int kind = rec.readVarInt();
+                    String id = rec.readString();
+                    String name = rec.readString();
+                    String email = rec.readString();
+                    String password = rec.readString();
+                    String phone = rec.readString();
+                    String extra = rec.readString();
+
+                    User user;
+                    if (kind == STUDENT) user = new Student(id, name, email, password, extra);
+                    else if (kind == EVALUATOR) user = new Evaluator(id, name, email, password, extra);
+                    else if (kind == COORDINATOR) user = new Coordinator(id, name, email, password, extra);
+                    else throw new IOException("Unknown user kind " + kind);
+                    user.setPhoneNumber(phone);
+                    entities.add(user);
+
+                    first.add(readIds(links));
+                    second.add(kind == EVALUATOR ? readIds(links) : null);
+                }
+                return new Part(shard, entities, ids -> {
+                    for (int i = 0; i < entities.size(); i++) {
+                        Object u = entities.get(i);
+                        if (u instanceof Student) {
+                            resolve(first.get(i), ids.submissions, Submission.class, ((Student) u).getSubmissions());
+                        } else if (u instanceof Evaluator) {
+                            resolve(first.get(i), ids.evaluations, Evaluation.class, ((Evaluator) u).getEvaluations());
+                            resolve(second.get(i), ids.sessions, Session.class, ((Evaluator) u).getAssignedSessions());
+                        } else {
+                            resolve(first.get(i), ids.sessions, Session.class, ((Coordinator) u).getManagedSessions());
+                        }
+                    }
+                });
+            }
+            case SESSIONS: {
+                List<String[]> submissionIds = new ArrayList<>(count);
+                List<String[]> evaluatorIds = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    entities.add(new Session(rec.readString(), rec.readString(), rec.readString(),
+                            rec.readString(), rec.readString()));
+                    submissionIds.add(readIds(links));
+                    evaluatorIds.add(readIds(links));
+                }
+                return new Part(shard, entities, ids -> {
+                    for (int i = 0; i < entities.size(); i++) {
+                        Session s = (Session) entities.get(i);
+                        resolve(submissionIds.get(i), ids.submissions, Submission.class, s.getSubmissions());
+                        resolve(evaluatorIds.get(i), ids.users, Evaluator.class, s.getEvaluators());
+                    }
+                });
+            }
+            case SUBMISSIONS: {
+                String[] studentIds = new String[count];
+                String[] sessionIds = new String[count];
+                List<String[]> evaluationIds = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    String id = rec.readString();
+                    String title = rec.readString();
+                    Supplier<String> abstractText = BinaryIO.readText(rec, text);
+                    Submission sub = new Submission(id, title, null, rec.readString(), rec.readString(),
+                            rec.readString(), null);
+                    sub.setAbstractTextLoader(abstractText);
+                    sub.setBoardId(rec.readString());
+                    studentIds[i] = rec.readString();
+                    sessionIds[i] = rec.readString();
+                    entities.add(sub);
+                    evaluationIds.add(readIds(links));
+                }
+                return new Part(shard, entities, ids -> {
+                    for (int i = 0; i < entities.size(); i++) {
+                        Submission sub = (Submission) entities.get(i);
+                        sub.setStudent(lookup(studentIds[i], ids.users, Student.class));
+                        sub.setSession(lookup(sessionIds[i], ids.sessions, Session.class));
+                        List<Evaluation> evaluations = new ArrayList<>(evaluationIds.get(i).length);
+                        resolve(evaluationIds.get(i), ids.evaluations, Evaluation.class, evaluations);
+                        sub.setEvaluations(evaluations);
+                    }
+                });
+            }
+            case EVALUATIONS: {
+                // Evaluation only takes its owners in the constructor, so the objects are built in the link phase
+                String[] evaluationIds = new String[count];
+                int[][] scores = new int[count][];
+                List<Supplier<String>> comments = new ArrayList<>(count);
+                String[] submissionIds = new String[count];
+                String[] evaluatorIds = new String[count];
+                for (int i = 0; i < count; i++) {
+                    evaluationIds[i] = rec.readString();
+                    scores[i] = new int[] { rec.readZigZag(), rec.readZigZag(), rec.readZigZag(), rec.readZigZag() };
+                    comments.add(BinaryIO.readText(rec, text));
+                    submissionIds[i] = rec.readString();
+                    evaluatorIds[i] = rec.readString();
+                }
+                return new Part(shard, entities, ids -> {
+                    for (int i = 0; i < evaluationIds.length; i++) {
+                        Evaluation ev = new Evaluation(evaluationIds[i], scores[i][0], scores[i][1],
+                                scores[i][2], scores[i][3], null,
+                                lookup(submissionIds[i], ids.submissions, Submission.class),
+                                lookup(evaluatorIds[i], ids.users, Evaluator.class));
+                        ev.setCommentsLoader(comments.get(i));
+                        entities.add(ev);
+                    }
+                });
+            }
+            case AWARDS: {
+                String[] winnerIds = new String[count];
+                double[] scores = new double[count];
+                for (int i = 0; i < count; i++) {
+                    entities.add(new Award(rec.readString(), rec.readString()));
+                    winnerIds[i] = rec.readString();
+                    scores[i] = rec.readDouble();
+                }
+                return new Part(shard, entities, ids -> {
+                    for (int i = 0; i < entities.size(); i++) {
+                        ((Award) entities.get(i)).setWinner(lookup(winnerIds[i], ids.submissions, Submission.class), scores[i]);
+                    }
+                });
+            }
+            default:
+                throw new IOException("Unknown shard " + shard);
+        }
+    }
+
+    // Link phase: build the ID maps, resolve every part's references and fill a new store
+    static DataStore assemble(Map<Shard, Part> parts, long generation) {
+        DataStore store = new DataStore();
+        store.generation = generation;
+        Ids ids = new Ids();
+
+        for (Object o : entities(parts, Shard.USERS)) ids.users.putIfAbsent(((User) o).getUserId(), (User) o);
+        for (Object o : entities(parts, Shard.SESSIONS)) ids.sessions.putIfAbsent(((Session) o).getSessionId(), (Session) o);
+        for (Object o : entities(parts, Shard.SUBMISSIONS)) ids.submissions.putIfAbsent(((Submission) o).getSubmissionId(), (Submission) o);
+
+        // Evaluations are created while linking, so index them afterwards and link the rest against that
+        Part evaluations = parts.get(Shard.EVALUATIONS);
+        if (evaluations != null) evaluations.linker.link(ids);
+        for (Object o : entities(parts, Shard.EVALUATIONS)) ids.evaluations.putIfAbsent(((Evaluation) o).getEvaluationId(), (Evaluation) o);
+
+        for (Part part : parts.values()) {
+            if (part != evaluations) part.linker.link(ids);
+        }
+
+        for (Object o : entities(parts, Shard.USERS)) store.addUser((User) o);
+        for (Object o : entities(parts, Shard.SESSIONS)) store.sessions.add((Session) o);
+        for (Object o : entities(parts, Shard.SUBMISSIONS)) store.submissions.add((Submission) o);
+        for (Object o : entities(parts, Shard.EVALUATIONS)) store.evaluations.add((Evaluation) o);
+        for (Object o : entities(parts, Shard.AWARDS)) store.awards.add((Award) o);
+        return store;
+    }
+
+    private static List<Object> entities(Map<Shard, Part> parts, Shard shard) {
+        Part part = parts.get(shard);
+        return (part != null) ? part.entities : new ArrayList<>();
+    }
+
+    private static String[] readIds(BinaryIO.In in) throws IOException {
+        int count = in.readVarInt();
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) ids[i] = in.readString();
+        return ids;
+    }
+
+    // References to entities that no longer exist are dropped
+    private static <T> void resolve(String[] ids, Map<String, ?> byId, Class<T> type, List<T> into) {
+        for (String id : ids) {
+            T e = lookup(id, byId, type);
+            if (e != null) into.add(e);
+        }
+    }
+
+    private static <T> T lookup(String id, Map<String, ?> byId, Class<T> type) {
+        if (id == null) return null;
+        Object e = byId.get(id);
+        return type.isInstance(e) ? type.cast(e) : null;
+    }
+}
@@ -0,0 +1,277 @@
+package data;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * SnapshotFiles - crash-safe, generation-numbered snapshot files.
+ * Each snapshot is written to a temp file, fsynced and atomically renamed to
+ * <prefix>.<generation>.ser, so an interrupted save never touches an existing copy.
+ * A checksummed header lets startup skip a damaged file and fall back to the
+ * newest older generation. Only the last KEEP_GENERATIONS files are kept.
+ * Files are memory-mapped for reading; since a generation file is never rewritten
+ * in place, decoders may keep slices of the mapping for lazily loaded fields.
+ * A payload can be stored deflated (COMPRESSED flag); it is compressed chunk by chunk
+ * straight into the file and inflated once on read, so decoders always see plain bytes.
+ */
+class SnapshotFiles {
+    static final int KEEP_GENERATIONS = 3;
+
+    private static final int MAGIC = 0x534D5331; // "SMS1"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 28;   // magic, version, flags, generation, length, crc32
+
+    // Payload formats (header flags)
+    static final short FORMAT_SERIALIZED = 0; // Java serialization (read only, migrated on load)
+    static final short FORMAT_BINARY = 1;     // single-file BinaryCodec (read only, migrated on load)
+    static final short FORMAT_MANIFEST = 2;   // ShardCodec manifest
+    static final short FORMAT_SHARD = 3;      // ShardCodec shard
+
+    // Flag bit: payload is the raw length (int) followed by a deflate stream
+    static final short COMPRESSED = 0x100;
+    static final int NO_COMPRESSION = 0;      // level that stores payloads as they are
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    // Turns a verified payload into a store; throws if it cannot be decoded
+    interface Decoder<T> {
+        T decode(ByteBuffer payload, short format) throws Exception;
+    }
+
+    private final File dir;
+    private final String prefix;
+    private final Pattern namePattern;
+
+    // Generation whose mapping the loaded store still reads from; never deleted
+    private volatile long pinnedGeneration = -1;
+
+    SnapshotFiles(File dir, String prefix) {
+        this.dir = dir;
+        this.prefix = prefix;
+        this.namePattern = Pattern.compile(Pattern.quote(prefix) + "\\.(\\d+)\\.ser");
+    }
+
+    File fileFor(long generation) {
+        return new File(dir, String.format("%s.%06d.ser", prefix, generation));
+    }
+
+    // Write one generation: temp file -> fsync -> atomic rename -> fsync directory
+    void write(long generation, short format, byte[] payload) throws IOException {
+        write(generation, format, payload, NO_COMPRESSION);
+    }
+
+    // Same, deflating the payload at the given level (1-9) unless it is NO_COMPRESSION;
+    // returns the number of payload bytes stored
+    long write(long generation, short format, byte[] payload, int level) throws IOException {
+        File target = fileFor(generation);
+        File temp = new File(dir, target.getName() + ".tmp");
+
+        long stored;
+        try (FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            // The header needs the stored length and checksum, so it is written last
+            out.position(HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            if (level == NO_COMPRESSION) {
+                crc.update(payload);
+                writeFully(out, ByteBuffer.wrap(payload));
+                stored = payload.length;
+            } else {
+                format |= COMPRESSED;
+                stored = deflate(out, payload, level, crc);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC);
+            header.putShort(VERSION);
+            header.putShort(format);
+            header.putLong(generation);
+            header.putLong(stored);
+            header.putInt((int) crc.getValue());
+            header.flip();
+            out.position(0);
+            writeFully(out, header);
+            out.force(true);
+        }
+
+        try {
+            Files.move(temp.toPath(), target.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory();
+        return stored;
+    }
+
+    // Stream the deflated payload into the file a chunk at a time; returns the bytes written
+    private static long deflate(FileChannel out, byte[] payload, int level, CRC32 crc) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+        chunk.putInt(payload.length);
+
+        Deflater deflater = new Deflater(level);
+        long written = 0;
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            while (true) {
+                deflater.deflate(chunk);
+                if (!chunk.hasRemaining() || deflater.finished()) {
+                    chunk.flip();
+                    crc.update(chunk.duplicate());
+                    written += chunk.remaining();
+                    writeFully(out, chunk);
+                    chunk.clear();
+                    if (deflater.finished()) return written;
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static ByteBuffer inflate(ByteBuffer stored) throws IOException {
+        int length = stored.getInt();
+        if (length < 0) throw new IOException("bad compressed length");
+        ByteBuffer payload = ByteBuffer.allocate(length + 1); // spare byte: overlong streams fail below
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            while (!inflater.finished()) {
+                if (inflater.inflate(payload) == 0 && !inflater.finished()) {
+                    if (!payload.hasRemaining()) break; // longer than recorded, rejected below
+                    if (inflater.needsInput() || inflater.needsDictionary()) {
+                        throw new IOException("truncated compressed payload");
+                    }
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("corrupt compressed payload: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+        if (payload.position() != length) throw new IOException("compressed payload does not match its length");
+        payload.flip();
+        return payload;
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) out.write(buf);
+    }
+
+    // Decode the newest snapshot that passes its checksum; null when none is usable
+    <T> T loadNewest(Decoder<T> decoder) {
+        List<Long> generations = generations();
+        for (int i = generations.size() - 1; i >= 0; i--) {
+            long generation = generations.get(i);
+            try {
+                T loaded = read(fileFor(generation), generation, decoder);
+                if (i < generations.size() - 1) {
+                    System.err.println("Recovered data from snapshot generation " + generation);
+                }
+                return loaded;
+            } catch (Exception e) {
+                System.err.println("Skipping snapshot " + fileFor(generation).getName() + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    // Decode one specific generation; throws if it is missing or damaged
+    <T> T read(long generation, Decoder<T> decoder) throws Exception {
+        return read(fileFor(generation), generation, decoder);
+    }
+
+    // Keep this generation on disk while lazily loaded fields may still read from its mapping
+    void pin(long generation) {
+        pinnedGeneration = generation;
+    }
+
+    // Delete all but the newest KEEP_GENERATIONS snapshots (and stale temp files);
+    // returns the oldest generation kept, or -1 when there is none
+    long prune() {
+        List<Long> generations = generations();
+        int drop = Math.max(0, generations.size() - KEEP_GENERATIONS);
+        pruneBelow(drop < generations.size() ? generations.get(drop) : Long.MAX_VALUE);
+        return drop < generations.size() ? generations.get(drop) : -1;
+    }
+
+    // Delete every generation older than oldestKept, except the pinned one
+    void pruneBelow(long oldestKept) {
+        for (long generation : generations()) {
+            if (generation >= oldestKept || generation == pinnedGeneration) continue;
+            if (!fileFor(generation).delete()) {
+                System.err.println("Failed to delete old snapshot " + fileFor(generation).getName());
+            }
+        }
+
+        File[] temps = dir.listFiles((d, name) -> name.startsWith(prefix + ".") && name.endsWith(".ser.tmp"));
+        if (temps != null) {
+            for (File t : temps) t.delete();
+        }
+    }
+
+    // Generations present on disk, oldest first
+    List<Long> generations() {
+        List<Long> result = new ArrayList<>();
+        String[] names = dir.list();
+        if (names == null) return result;
+
+        for (String name : names) {
+            Matcher m = namePattern.matcher(name);
+            if (m.matches()) {
+                try {
+                    result.add(Long.parseLong(m.group(1)));
+                } catch (NumberFormatException ignored) {}
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private static <T> T read(File file, long generation, Decoder<T> decoder) throws Exception {
+        ByteBuffer map;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) throw new IOException("truncated header");
+            if (size > Integer.MAX_VALUE) throw new IOException("snapshot too large");
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size); // stays valid after close
+        }
+
+        if (map.getInt() != MAGIC) throw new IOException("bad magic");
+        short version = map.getShort();
+        if (version > VERSION) throw new IOException("unsupported version " + version);
+        short format = map.getShort();
+        if (map.getLong() != generation) throw new IOException("generation does not match file name");
+        long length = map.getLong();
+        int crc = map.getInt();
+        if (length != map.limit() - HEADER_SIZE) throw new IOException("truncated payload");
+
+        ByteBuffer payload = map.slice();
+        CRC32 check = new CRC32();
+        check.update(payload.duplicate());
+        if ((int) check.getValue() != crc) throw new IOException("checksum mismatch");
+
+        if ((format & COMPRESSED) != 0) return decoder.decode(inflate(payload), (short) (format & ~COMPRESSED));
+        return decoder.decode(payload, format);
+    }
+
+    private void syncDirectory() {
+        // Makes the rename itself durable; not supported on every platform, so best effort
+        try (FileChannel channel = FileChannel.open(dir.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {}
+    }
+}
@@ -0,0 +1,397 @@
+package data;
+
+import models.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * StoreMerger - folds a freshly loaded DataStore into the live one instead of replacing it.
+ * Entities are matched by ID through an identity map; a match keeps its instance and only
+ * has the fields that differ copied over, new entities are adopted as they are, and every
+ * link and list is pointed at the surviving instances. Lists are updated in place, so
+ * views holding a Student, Session or list reference keep seeing current data.
+ * The live store's indexes are kept: an entity is taken out of them before its first change
+ * (or when it is gone) and put back once the merge is done. Only when most of the store
+ * changed are they dropped and left to be rebuilt.
+ */
+final class StoreMerger {
+    // ID -> instance that survives the merge (live when it still exists, else the fresh one)
+    private final Map<String, User> users = new HashMap<>();
+    private final Map<String, Session> sessions = new HashMap<>();
+    private final Map<String, Submission> submissions = new HashMap<>();
+    private final Map<String, Evaluation> evaluations = new HashMap<>();
+    private final Map<String, Award> awards = new HashMap<>();
+
+    // Live entities changed or added by the merge, taken out of the indexes until it is done
+    private final Set<User> touchedUsers = identitySet();
+    private final Set<Session> touchedSessions = identitySet();
+    private final Set<Submission> touchedSubmissions = identitySet();
+    private final Set<Evaluation> touchedEvaluations = identitySet();
+
+    private final DataStore live;
+    private int changes;
+
+    private StoreMerger(DataStore live) {
+        this.live = live;
+    }
+
+    // Merge fresh into live; returns how many entities or memberships changed
+    static int merge(DataStore live, DataStore fresh) {
+        StoreMerger m = new StoreMerger(live);
+        m.resolve(live, fresh);
+        m.unindexRemoved();
+
+        for (User u : fresh.users) m.mergeUser(u);
+        for (Session s : fresh.sessions) m.mergeSession(s);
+        for (Submission sub : fresh.submissions) m.mergeSubmission(sub);
+        for (Evaluation ev : fresh.evaluations) m.mergeEvaluation(ev);
+        for (Award a : fresh.awards) m.mergeAward(a);
+
+        m.sync(live.users, fresh.users, m::user);
+        m.sync(live.students, fresh.students, u -> (Student) m.user(u));
+        m.sync(live.evaluators, fresh.evaluators, u -> (Evaluator) m.user(u));
+        m.sync(live.coordinators, fresh.coordinators, u -> (Coordinator) m.user(u));
+        m.sync(live.sessions, fresh.sessions, m::session);
+        m.sync(live.submissions, fresh.submissions, m::submission);
+        m.sync(live.evaluations, fresh.evaluations, m::evaluation);
+        m.sync(live.awards, fresh.awards, m::award);
+        m.reindexTouched();
+        // Other processes may have handed out IDs the live sequences have not seen yet
+        live.ids().restore(fresh.ids().snapshot());
+        live.ids().refresh();
+        live.generation = fresh.generation;
+        return m.changes;
+    }
+
+    // Identity map: reuse the live instance for every ID the fresh store still has
+    private void resolve(DataStore live, DataStore fresh) {
+        Map<String, User> liveUsers = index(live.users, User::getUserId);
+        Map<String, Session> liveSessions = index(live.sessions, Session::getSessionId);
+        Map<String, Submission> liveSubmissions = index(live.submissions, Submission::getSubmissionId);
+        Map<String, Evaluation> liveEvaluations = index(live.evaluations, Evaluation::getEvaluationId);
+        Map<String, Award> liveAwards = index(live.awards, Award::getAwardId);
+
+        for (User u : fresh.users) {
+            if (u == null) continue;
+            User existing = liveUsers.get(u.getUserId());
+            // A user whose role changed cannot be updated in place
+            users.putIfAbsent(u.getUserId(),
+                    (existing != null && existing.getClass() == u.getClass()) ? existing : u);
+        }
+        for (Session s : fresh.sessions) {
+            if (s != null) sessions.putIfAbsent(s.getSessionId(), liveSessions.getOrDefault(s.getSessionId(), s));
+        }
+        for (Submission sub : fresh.submissions) {
+            if (sub != null) submissions.putIfAbsent(sub.getSubmissionId(),
+                    liveSubmissions.getOrDefault(sub.getSubmissionId(), sub));
+        }
+        for (Evaluation ev : fresh.evaluations) {
+            if (ev != null) evaluations.putIfAbsent(ev.getEvaluationId(),
+                    liveEvaluations.getOrDefault(ev.getEvaluationId(), ev));
+        }
+        for (Award a : fresh.awards) {
+            if (a != null) awards.putIfAbsent(a.getAwardId(), liveAwards.getOrDefault(a.getAwardId(), a));
+        }
+    }
+
+    // Take entities the fresh store no longer has out of the live indexes
+    private void unindexRemoved() {
+        for (User u : live.users) {
+            if (u != null && users.get(u.getUserId()) != u) live.unindex(u);
+        }
+        for (Session s : live.sessions) {
+            if (s != null && sessions.get(s.getSessionId()) != s) unindex(s);
+        }
+        for (Submission sub : live.submissions) {
+            if (sub != null && submissions.get(sub.getSubmissionId()) != sub) live.unindex(sub);
+        }
+        for (Evaluation ev : live.evaluations) {
+            if (ev != null && evaluations.get(ev.getEvaluationId()) != ev) live.unindex(ev);
+        }
+    }
+
+    // Put the changed and new entities back, in list order; when most of the store changed,
+    // dropping the indexes is cheaper than updating them one entity at a time
+    private void reindexTouched() {
+        int touched = touchedUsers.size() + touchedSessions.size() + touchedSubmissions.size()
+                + touchedEvaluations.size();
+        int total = live.users.size() + live.sessions.size() + live.submissions.size() + live.evaluations.size();
+        if (touched * 2 > total) {
+            live.reindex();
+            return;
+        }
+
+        for (User u : live.users) {
+            if (touchedUsers.contains(u)) live.index(u);
+        }
+        for (Session s : live.sessions) {
+            if (!touchedSessions.contains(s)) continue;
+            live.index(s);
+            for (Submission sub : s.getSubmissions()) live.indexAssignment(s, sub);
+            for (Evaluator e : s.getEvaluators()) live.indexEvaluator(s, e);
+        }
+        for (Submission sub : live.submissions) {
+            if (touchedSubmissions.contains(sub)) live.index(sub);
+        }
+        for (Evaluation ev : live.evaluations) {
+            if (touchedEvaluations.contains(ev)) live.index(ev);
+        }
+    }
+
+    private void unindex(Session s) {
+        live.unindex(s);
+        for (Submission sub : s.getSubmissions()) live.unindexAssignment(s, sub);
+        for (Evaluator e : s.getEvaluators()) live.unindexEvaluator(s, e);
+    }
+
+    // Count a change to a surviving entity; the first one takes it out of the indexes,
+    // before any field or list the indexes were built from is overwritten
+    private void changed(User u) {
+        changes++;
+        if (touchedUsers.add(u)) live.unindex(u);
+    }
+
+    private void changed(Session s) {
+        changes++;
+        if (touchedSessions.add(s)) unindex(s);
+    }
+
+    private void changed(Submission sub) {
+        changes++;
+        if (touchedSubmissions.add(sub)) live.unindex(sub);
+    }
+
+    private void changed(Evaluation ev) {
+        changes++;
+        if (touchedEvaluations.add(ev)) live.unindex(ev);
+    }
+
+    private static <T> Set<T> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private static <T> Map<String, T> index(List<T> items, Function<T, String> id) {
+        Map<String, T> map = new HashMap<>();
+        for (T item : items) {
+            if (item != null && id.apply(item) != null) map.putIfAbsent(id.apply(item), item);
+        }
+        return map;
+    }
+
+    // Surviving instance for a reference taken from the fresh store (unknown IDs are kept as they are)
+    private User user(User u) {
+        return (u == null) ? null : users.getOrDefault(u.getUserId(), u);
+    }
+
+    private Session session(Session s) {
+        return (s == null) ? null : sessions.getOrDefault(s.getSessionId(), s);
+    }
+
+    private Submission submission(Submission sub) {
+        return (sub == null) ? null : submissions.getOrDefault(sub.getSubmissionId(), sub);
+    }
+
+    private Evaluation evaluation(Evaluation ev) {
+        return (ev == null) ? null : evaluations.getOrDefault(ev.getEvaluationId(), ev);
+    }
+
+    private Award award(Award a) {
+        return (a == null) ? null : awards.getOrDefault(a.getAwardId(), a);
+    }
+
+    // Fields
+
+    private void mergeUser(User fresh) {
+        if (fresh == null) return;
+        User target = user(fresh);
+        if (target != fresh) {
+            if (!Objects.equals(target.getName(), fresh.getName())) { changed(target); target.setName(fresh.getName()); }
+            if (!Objects.equals(target.getEmail(), fresh.getEmail())) { changed(target); target.setEmail(fresh.getEmail()); }
+            if (!Objects.equals(target.getPhoneNumber(), fresh.getPhoneNumber())) {
+                changed(target);
+                target.setPhoneNumber(fresh.getPhoneNumber());
+            }
+            if (!Objects.equals(target.getPassword(), fresh.getPassword())) {
+                changed(target);
+                target.setPassword(fresh.getPassword());
+            }
+        } else {
+            changed(target);
+        }
+
+        if (fresh instanceof Student) {
+            Student s = (Student) target;
+            Student f = (Student) fresh;
+            if (!Objects.equals(s.getSupervisorName(), f.getSupervisorName())) {
+                changed(s);
+                s.setSupervisorName(f.getSupervisorName());
+            }
+            sync(s.getSubmissions(), f.getSubmissions(), this::submission);
+        } else if (fresh instanceof Evaluator) {
+            Evaluator e = (Evaluator) target;
+            Evaluator f = (Evaluator) fresh;
+            if (!Objects.equals(e.getExpertise(), f.getExpertise())) { changed(e); e.setExpertise(f.getExpertise()); }
+            sync(e.getEvaluations(), f.getEvaluations(), this::evaluation);
+            sync(e.getAssignedSessions(), f.getAssignedSessions(), this::session);
+        } else if (fresh instanceof Coordinator) {
+            Coordinator c = (Coordinator) target;
+            Coordinator f = (Coordinator) fresh;
+            if (!Objects.equals(c.getDepartment(), f.getDepartment())) { changed(c); c.setDepartment(f.getDepartment()); }
+            sync(c.getManagedSessions(), f.getManagedSessions(), this::session);
+        }
+    }
+
+    private void mergeSession(Session fresh) {
+        if (fresh == null) return;
+        Session target = session(fresh);
+        if (target != fresh) {
+            if (!Objects.equals(target.getDate(), fresh.getDate())) { changed(target); target.setDate(fresh.getDate()); }
+            if (!Objects.equals(target.getTime(), fresh.getTime())) { changed(target); target.setTime(fresh.getTime()); }
+            if (!Objects.equals(target.getVenue(), fresh.getVenue())) { changed(target); target.setVenue(fresh.getVenue()); }
+            if (!Objects.equals(target.getSessionType(), fresh.getSessionType())) {
+                changed(target);
+                target.setSessionType(fresh.getSessionType());
+            }
+        } else {
+            changed(target);
+        }
+        // The assignment indexes are taken down from the old lists, so the session is marked first
+        List<Submission> subs = resolved(fresh.getSubmissions(), this::submission);
+        List<Evaluator> evaluators = resolved(fresh.getEvaluators(), u -> (Evaluator) user(u));
+        if (!same(target.getSubmissions(), subs)) { changed(target); replace(target.getSubmissions(), subs); }
+        if (!same(target.getEvaluators(), evaluators)) { changed(target); replace(target.getEvaluators(), evaluators); }
+    }
+
+    private void mergeSubmission(Submission fresh) {
+        if (fresh == null) return;
+        Submission target = submission(fresh);
+        if (target != fresh) {
+            if (!Objects.equals(target.getTitle(), fresh.getTitle())) { changed(target); target.setTitle(fresh.getTitle()); }
+            if (!Objects.equals(target.getSupervisorName(), fresh.getSupervisorName())) {
+                changed(target);
+                target.setSupervisorName(fresh.getSupervisorName());
+            }
+            if (!Objects.equals(target.getPresentationType(), fresh.getPresentationType())) {
+                changed(target);
+                target.setPresentationType(fresh.getPresentationType());
+            }
+            if (!Objects.equals(target.getFilePath(), fresh.getFilePath())) {
+                changed(target);
+                target.setFilePath(fresh.getFilePath());
+            }
+            if (!Objects.equals(target.getBoardId(), fresh.getBoardId())) {
+                changed(target);
+                target.setBoardId(fresh.getBoardId());
+            }
+            // Still-encoded text is compared as bytes and handed over rather than decoded
+            Supplier<String> pending = fresh.getAbstractTextLoader();
+            if (pending != null) {
+                Supplier<String> current = target.getAbstractTextLoader();
+                boolean same = BinaryIO.sameText(pending, current, target::getAbstractText);
+                if (!same) changed(target);
+                if (!same || current != null) target.setAbstractTextLoader(pending);
+            } else if (!Objects.equals(target.getAbstractText(), fresh.getAbstractText())) {
+                changed(target);
+                target.setAbstractText(fresh.getAbstractText());
+            }
+        } else {
+            changed(target);
+        }
+
+        Student student = (Student) user(fresh.getStudent());
+        if (target.getStudent() != student) { changed(target); target.setStudent(student); }
+        Session session = session(fresh.getSession());
+        if (target.getSession() != session) { changed(target); target.setSession(session); }
+        List<Evaluation> evs = resolved(fresh.getEvaluations(), this::evaluation);
+        if (!same(target.getEvaluations(), evs)) { changed(target); target.setEvaluations(evs); }
+    }
+
+    private void mergeEvaluation(Evaluation fresh) {
+        if (fresh == null) return;
+        Evaluation target = evaluation(fresh);
+        if (target != fresh) {
+            if (target.getProblemClarity() != fresh.getProblemClarity()) {
+                changed(target);
+                target.setProblemClarity(fresh.getProblemClarity());
+            }
+            if (target.getMethodology() != fresh.getMethodology()) {
+                changed(target);
+                target.setMethodology(fresh.getMethodology());
+            }
+            if (target.getResults() != fresh.getResults()) { changed(target); target.setResults(fresh.getResults()); }
+            if (target.getPresentation() != fresh.getPresentation()) {
+                changed(target);
+                target.setPresentation(fresh.getPresentation());
+            }
+            Supplier<String> pending = fresh.getCommentsLoader();
+            if (pending != null) {
+                Supplier<String> current = target.getCommentsLoader();
+                boolean same = BinaryIO.sameText(pending, current, target::getComments);
+                if (!same) changed(target);
+                if (!same || current != null) target.setCommentsLoader(pending);
+            } else if (!Objects.equals(target.getComments(), fresh.getComments())) {
+                changed(target);
+                target.setComments(fresh.getComments());
+            }
+        } else {
+            changed(target);
+        }
+
+        Submission sub = submission(fresh.getSubmission());
+        if (target.getSubmission() != sub) { changed(target); target.setSubmission(sub); }
+        Evaluator evaluator = (Evaluator) user(fresh.getEvaluator());
+        if (target.getEvaluator() != evaluator) { changed(target); target.setEvaluator(evaluator); }
+    }
+
+    private void mergeAward(Award fresh) {
+        if (fresh == null) return;
+        Award target = award(fresh);
+        if (target != fresh) {
+            if (!Objects.equals(target.getAwardType(), fresh.getAwardType())) {
+                target.setAwardType(fresh.getAwardType());
+                changes++;
+            }
+        } else {
+            changes++;
+        }
+
+        Submission winner = submission(fresh.getWinner());
+        if (target.getWinner() != winner || target.getWinningScore() != fresh.getWinningScore()) {
+            target.setWinner(winner, fresh.getWinningScore());
+            changes++;
+        }
+    }
+
+    // Make target hold the surviving instances of source, in order; left alone when already equal
+    private <T> void sync(List<T> target, List<? extends T> source, Function<T, T> resolve) {
+        List<T> wanted = resolved(source, resolve);
+        if (same(target, wanted)) return;
+        replace(target, wanted);
+        changes++;
+    }
+
+    private static <T> List<T> resolved(List<? extends T> source, Function<T, T> resolve) {
+        List<T> wanted = new ArrayList<>(source.size());
+        for (T item : source) wanted.add(resolve.apply(item));
+        return wanted;
+    }
+
+    private static <T> boolean same(List<T> target, List<T> wanted) {
+        boolean same = target.size() == wanted.size();
+        for (int i = 0; same && i < wanted.size(); i++) same = target.get(i) == wanted.get(i);
+        return same;
+    }
+
+    private static <T> void replace(List<T> target, List<T> wanted) {
+        target.clear();
+        target.addAll(wanted);
+    }
+}
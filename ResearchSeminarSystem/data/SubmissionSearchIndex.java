@@ -0,0 +1,320 @@
+package data;
+
+import models.Submission;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * SubmissionSearchIndex - inverted index over submission titles, abstracts and supervisor names.
+ * Text is split into lower-case letter/digit tokens. Each indexed submission gets a slot number,
+ * and each token maps to the ascending slots of the submissions containing it, with a field-
+ * weighted count (a title hit is worth more than one in the abstract), kept in plain int arrays.
+ * A query matches the submissions containing every query word - the last one also as a prefix,
+ * so results appear while typing - ranked by tf-idf. Word lists are intersected by walking the
+ * shortest one and galloping through the others. Kept up to date one submission at a time;
+ * slots of removed submissions are renumbered away once they make up half the index.
+ */
+final class SubmissionSearchIndex {
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SUPERVISOR_WEIGHT = 2;
+    private static final int ABSTRACT_WEIGHT = 1;
+
+    // A short last word could expand to most of the dictionary; use only its first few completions
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final int MIN_COMPACT_SLOTS = 1024;
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "that", "the", "this", "to", "we", "with"));
+
+    // Term -> postings; sorted so a prefix is a range of keys
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+
+    // Slot -> submission (null once removed) and its distinct terms
+    private Submission[] docs = new Submission[64];
+    private String[][] docTerms = new String[64][];
+    private int slotCount;
+    private final Map<Submission, Integer> slots = new IdentityHashMap<>();
+
+    void add(Submission sub) {
+        if (sub == null || slots.containsKey(sub)) return;
+
+        Map<String, Integer> counts = new HashMap<>();
+        count(sub.getTitle(), TITLE_WEIGHT, counts);
+        count(sub.getSupervisorName(), SUPERVISOR_WEIGHT, counts);
+        count(sub.getAbstractText(), ABSTRACT_WEIGHT, counts);
+
+        if (slotCount == docs.length) {
+            docs = Arrays.copyOf(docs, slotCount * 2);
+            docTerms = Arrays.copyOf(docTerms, slotCount * 2);
+        }
+        int slot = slotCount++;
+        docs[slot] = sub;
+        docTerms[slot] = counts.keySet().toArray(new String[0]);
+        slots.put(sub, slot);
+        // New slots are the highest yet, so appending keeps every postings list ascending
+        for (Map.Entry<String, Integer> e : counts.entrySet()) {
+            postings.computeIfAbsent(e.getKey(), k -> new Postings()).append(slot, e.getValue());
+        }
+    }
+
+    void remove(Submission sub) {
+        Integer slot = slots.remove(sub);
+        if (slot == null) return;
+
+        for (String term : docTerms[slot]) {
+            Postings p = postings.get(term);
+            if (p == null) continue;
+            p.remove(slot);
+            if (p.size == 0) postings.remove(term);
+        }
+        docs[slot] = null;
+        docTerms[slot] = null;
+        if (slotCount >= MIN_COMPACT_SLOTS && slots.size() * 2 < slotCount) compact();
+    }
+
+    // Re-tokenize after an edit
+    void update(Submission sub) {
+        remove(sub);
+        add(sub);
+    }
+
+    // Best matches first, at most limit of them; empty for a query without words
+    List<Submission> search(String query, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) return Collections.emptyList();
+
+        List<Match> matches = new ArrayList<>(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            Match m;
+            if (i == words.size() - 1) {
+                m = prefixMatch(word);
+            } else if (STOP_WORDS.contains(word)) {
+                continue; // never indexed, so it cannot narrow the result
+            } else {
+                Postings p = postings.get(word);
+                m = (p == null) ? null : new Match(p, idf(p.size));
+            }
+            if (m == null || m.size == 0) return Collections.emptyList();
+            matches.add(m);
+        }
+        if (matches.isEmpty()) return Collections.emptyList();
+
+        // Walk the shortest list; every other list is only probed forward from its last position
+        matches.sort((a, b) -> Integer.compare(a.size, b.size));
+        Match first = matches.get(0);
+        int[] cursors = new int[matches.size()];
+        PriorityQueue<Hit> best = new PriorityQueue<>(); // weakest hit on top
+
+        candidates:
+        for (int i = 0; i < first.size; i++) {
+            int slot = first.docs[i];
+            double score = first.score(i);
+            for (int w = 1; w < matches.size(); w++) {
+                Match m = matches.get(w);
+                int at = m.seek(slot, cursors[w]);
+                cursors[w] = at;
+                if (at == m.size) break candidates; // a list ran out: no later slot can match
+                if (m.docs[at] != slot) continue candidates;
+                score += m.score(at);
+            }
+            if (best.size() < limit) best.add(new Hit(slot, score));
+            else if (best.peek().score < score) {
+                best.poll();
+                best.add(new Hit(slot, score));
+            }
+        }
+
+        List<Submission> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) result.add(docs[best.poll().slot]);
+        Collections.reverse(result);
+        return result;
+    }
+
+    // The last query word: the union of every term it is a prefix of
+    private Match prefixMatch(String word) {
+        List<Postings> lists = new ArrayList<>();
+        for (Postings p : postings.subMap(word, true, word + Character.MAX_VALUE, false).values()) {
+            lists.add(p);
+            if (lists.size() == MAX_PREFIX_TERMS) break;
+        }
+        if (lists.isEmpty()) return null;
+        if (lists.size() == 1) return new Match(lists.get(0), idf(lists.get(0).size));
+
+        // Merge the sorted lists pairwise, summing the scores of a slot found in several
+        List<Match> parts = new ArrayList<>(lists.size());
+        for (Postings p : lists) parts.add(new Match(p, idf(p.size)));
+        while (parts.size() > 1) {
+            List<Match> next = new ArrayList<>((parts.size() + 1) / 2);
+            for (int i = 0; i + 1 < parts.size(); i += 2) next.add(union(parts.get(i), parts.get(i + 1)));
+            if (parts.size() % 2 == 1) next.add(parts.get(parts.size() - 1));
+            parts = next;
+        }
+        return parts.get(0);
+    }
+
+    private static Match union(Match a, Match b) {
+        int[] docs = new int[a.size + b.size];
+        double[] scores = new double[a.size + b.size];
+        int i = 0, j = 0, n = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.docs[i] < b.docs[j])) {
+                docs[n] = a.docs[i];
+                scores[n++] = a.score(i++);
+            } else if (i == a.size || b.docs[j] < a.docs[i]) {
+                docs[n] = b.docs[j];
+                scores[n++] = b.score(j++);
+            } else {
+                docs[n] = a.docs[i];
+                scores[n++] = a.score(i++) + b.score(j++);
+            }
+        }
+        return new Match(docs, scores, n);
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1.0 + (double) slots.size() / documentFrequency);
+    }
+
+    // Renumber the live slots densely; the order is kept, so postings stay ascending
+    private void compact() {
+        int[] renumber = new int[slotCount];
+        int live = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (docs[slot] == null) continue;
+            renumber[slot] = live;
+            docs[live] = docs[slot];
+            docTerms[live] = docTerms[slot];
+            slots.put(docs[live], live);
+            live++;
+        }
+        Arrays.fill(docs, live, slotCount, null);
+        Arrays.fill(docTerms, live, slotCount, null);
+        slotCount = live;
+        for (Postings p : postings.values()) {
+            for (int i = 0; i < p.size; i++) p.docs[i] = renumber[p.docs[i]];
+        }
+    }
+
+    private static void count(String text, int weight, Map<String, Integer> counts) {
+        for (String token : tokenize(text)) {
+            if (!STOP_WORDS.contains(token)) counts.merge(token, weight, Integer::sum);
+        }
+    }
+
+    // Lower-case runs of letters and digits
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Ascending slots containing one term, with the term's weighted count in each
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] weights = new int[4];
+        int size;
+
+        void append(int slot, int weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = slot;
+            weights[size] = weight;
+            size++;
+        }
+
+        void remove(int slot) {
+            int i = Arrays.binarySearch(docs, 0, size, slot);
+            if (i < 0) return;
+            System.arraycopy(docs, i + 1, docs, i, size - i - 1);
+            System.arraycopy(weights, i + 1, weights, i, size - i - 1);
+            size--;
+        }
+    }
+
+    // The slots one query word matches, ascending, with their score for that word
+    private static final class Match {
+        final int[] docs;
+        final int size;
+        private final int[] weights;   // single term: weight * idf
+        private final double idf;
+        private final double[] scores; // merged prefix terms
+
+        Match(Postings p, double idf) {
+            this.docs = p.docs;
+            this.size = p.size;
+            this.weights = p.weights;
+            this.idf = idf;
+            this.scores = null;
+        }
+
+        Match(int[] docs, double[] scores, int size) {
+            this.docs = docs;
+            this.size = size;
+            this.weights = null;
+            this.idf = 0;
+            this.scores = scores;
+        }
+
+        double score(int i) {
+            return (scores != null) ? scores[i] : weights[i] * idf;
+        }
+
+        // First position at or after from whose slot is >= target (size if none): gallop, then bisect
+        int seek(int target, int from) {
+            if (from >= size || docs[from] >= target) return from;
+            int step = 1;
+            int lo = from;
+            int hi = from + 1;
+            while (hi < size && docs[hi] < target) {
+                lo = hi;
+                step <<= 1;
+                hi = from + step;
+            }
+            if (hi > size) hi = size;
+            int i = Arrays.binarySearch(docs, lo + 1, hi, target);
+            return (i >= 0) ? i : -i - 1;
+        }
+    }
+
+    private static final class Hit implements Comparable<Hit> {
+        final int slot;
+        final double score;
+
+        Hit(int slot, double score) {
+            this.slot = slot;
+            this.score = score;
+        }
+
+        // Weakest first: lower score, then the later slot (ties go to the submission indexed first)
+        @Override
+        public int compareTo(Hit other) {
+            int c = Double.compare(score, other.score);
+            return (c != 0) ? c : Integer.compare(other.slot, slot);
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package data;
+
+import data.ShardCodec.Shard;
+import models.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Transaction - unit of work handed out by DataManager.transaction(...).
+ * Every operation validates its input first and throws (IllegalArgumentException /
+ * IllegalStateException) before touching anything, so a caller may catch a rejected
+ * operation and carry on. Accepted operations are applied to the store at once, so later
+ * operations see them, and each edit pushes its inverse onto an undo log. If the work
+ * throws, the log is replayed backwards and the store is exactly as before; otherwise
+ * DataManager persists everything with a single write.
+ * Only changes made through these operations are undone on rollback.
+ */
+public final class Transaction {
+    private final DataStore store;
+    private final List<Runnable> undo = new ArrayList<>();
+
+    // Journal records of the operations; replaying them redoes the transaction
+    private final List<byte[]> records = new ArrayList<>();
+    private final Set<Shard> touched = EnumSet.noneOf(Shard.class);
+
+    Transaction(DataStore store) {
+        this.store = store;
+    }
+
+    // Users
+
+    // User ID, email and phone number are unique keys, so checking and adding here reserves them
+    public void addUser(User user) {
+        require(user != null && user.getUserId() != null, "User and user ID are required");
+        check(store.findUserIgnoreCase(user.getUserId()) == null, "User ID already exists: " + user.getUserId());
+        check(store.findUserByEmail(user.getEmail()) == null, "This email has already been used.");
+        check(store.findUserByPhone(user.getPhoneNumber()) == null, "This phone number has already been used.");
+
+        if (user instanceof Student) add(store.students, (Student) user);
+        else if (user instanceof Evaluator) add(store.evaluators, (Evaluator) user);
+        else if (user instanceof Coordinator) add(store.coordinators, (Coordinator) user);
+        add(store.users, user);
+        store.index(user);
+        undo.add(() -> store.unindex(user));
+        journal(Journal.addUser(user), Shard.USERS);
+    }
+
+    // Submissions
+
+    public void addSubmission(Submission submission) {
+        require(submission != null && submission.getSubmissionId() != null, "Submission and submission ID are required");
+        check(store.findSubmission(submission.getSubmissionId()) == null,
+                "Submission ID already exists: " + submission.getSubmissionId());
+
+        add(store.submissions, submission);
+        store.index(submission);
+        undo.add(() -> store.unindex(submission));
+        Student student = submission.getStudent();
+        if (student != null && !student.getSubmissions().contains(submission)) add(student.getSubmissions(), submission);
+        journal(Journal.addSubmission(submission), Shard.SUBMISSIONS, Shard.USERS);
+    }
+
+    public void updateSubmission(Submission submission, String title, String abstractText, String supervisorName,
+                                 String presentationType, String filePath) {
+        requireStored(submission);
+
+        String oldTitle = submission.getTitle();
+        String oldSupervisor = submission.getSupervisorName();
+        String oldType = submission.getPresentationType();
+        String oldFile = submission.getFilePath();
+        Supplier<String> oldLoader = submission.getAbstractTextLoader();
+        String oldAbstract = (oldLoader == null) ? submission.getAbstractText() : null;
+
+        submission.setTitle(title);
+        submission.setAbstractText(abstractText);
+        submission.setSupervisorName(supervisorName);
+        submission.setPresentationType(presentationType);
+        submission.setFilePath(filePath);
+        store.reindexText(submission);
+        undo.add(() -> {
+            submission.setTitle(oldTitle);
+            if (oldLoader != null) submission.setAbstractTextLoader(oldLoader); // still undecoded
+            else submission.setAbstractText(oldAbstract);
+            submission.setSupervisorName(oldSupervisor);
+            submission.setPresentationType(oldType);
+            submission.setFilePath(oldFile);
+            store.reindexText(submission);
+        });
+        journal(Journal.updateSubmission(submission), Shard.SUBMISSIONS);
+    }
+
+    // Removes the submission together with its evaluations
+    public void deleteSubmission(Submission submission) {
+        requireStored(submission);
+        check(submission.getSession() == null, "Submission is assigned to a session");
+
+        for (Evaluation ev : new ArrayList<>(submission.getEvaluations())) removeEvaluation(ev);
+        if (submission.getStudent() != null) remove(submission.getStudent().getSubmissions(), submission);
+        if (remove(store.submissions, submission)) {
+            store.unindex(submission);
+            undo.add(() -> store.index(submission));
+        }
+        journal(Journal.deleteSubmission(submission), Shard.SUBMISSIONS, Shard.USERS);
+    }
+
+    // Sessions
+
+    public void addSession(Session session) {
+        addSession(session, null);
+    }
+
+    // Also puts it in the owner's managed sessions, so a rejected add leaves the owner as it was
+    public void addSession(Session session, Coordinator owner) {
+        require(session != null && session.getSessionId() != null, "Session and session ID are required");
+        check(store.findSession(session.getSessionId()) == null, "Session ID already exists: " + session.getSessionId());
+        checkBookable(session, session.getDate(), session.getTime(), session.getVenue());
+
+        add(store.sessions, session);
+        store.index(session);
+        undo.add(() -> store.unindex(session));
+        if (owner != null && !owner.getManagedSessions().contains(session)) add(owner.getManagedSessions(), session);
+        // Remember which coordinator created it so replay can restore managedSessions
+        journal(Journal.addSession(session, store.ownerOf(session)), Shard.SESSIONS, Shard.USERS);
+    }
+
+    public void updateSession(Session session, String date, String time, String venue) {
+        requireStored(session);
+        checkBookable(session, date, time, venue);
+
+        String oldDate = session.getDate();
+        String oldTime = session.getTime();
+        String oldVenue = session.getVenue();
+        session.setDate(date);
+        session.setTime(time);
+        session.setVenue(venue);
+        store.reschedule(session);
+        undo.add(() -> {
+            session.setDate(oldDate);
+            session.setTime(oldTime);
+            session.setVenue(oldVenue);
+            store.reschedule(session);
+        });
+        journal(Journal.updateSession(session), Shard.SESSIONS);
+    }
+
+    // Unassigns every submission and evaluator, then removes the session
+    public void deleteSession(Session session) {
+        requireStored(session);
+
+        for (Submission sub : session.getSubmissions()) {
+            Session previous = sub.getSession();
+            sub.setSession(null);
+            store.unindexAssignment(session, sub);
+            undo.add(() -> {
+                sub.setSession(previous);
+                store.indexAssignment(session, sub);
+            });
+        }
+        clear(session.getSubmissions());
+        for (Evaluator evaluator : session.getEvaluators()) {
+            store.unindexEvaluator(session, evaluator);
+            undo.add(() -> store.indexEvaluator(session, evaluator));
+        }
+        clear(session.getEvaluators());
+        if (remove(store.sessions, session)) {
+            store.unindex(session);
+            undo.add(() -> store.index(session));
+        }
+        journal(Journal.deleteSession(session), Shard.SESSIONS, Shard.SUBMISSIONS);
+    }
+
+    // Assign a submission (same presentation type, not yet scheduled, one per student per session)
+    public void assignSubmission(Coordinator coordinator, Session session, Submission submission) {
+        require(coordinator != null, "Coordinator is required");
+        requireStored(session);
+        requireStored(submission);
+
+        String sType = session.getSessionType();
+        String subType = submission.getPresentationType();
+        check(sType == null || subType == null || sType.equalsIgnoreCase(subType), "Type mismatch: " + subType);
+
+        Session already = store.findSessionOf(submission.getSubmissionId());
+        check(already == null, "Already assigned to " + (already != null ? already.getSessionId() : ""));
+
+        // Only the student's own submissions can clash, so check those against the reverse index
+        Student student = submission.getStudent();
+        if (student != null) {
+            for (Submission other : store.submissionsOf(student.getUserId())) {
+                check(other == submission || store.findSessionOf(other.getSubmissionId()) != session,
+                        "Student already has submission in this session");
+            }
+        }
+
+        // The model assigns the board ID, so record what it is about to change
+        boolean managed = coordinator.getManagedSessions().contains(session);
+        Session oldSession = submission.getSession();
+        String oldBoard = submission.getBoardId();
+        int sessionSize = session.getSubmissions().size();
+        check(coordinator.assignSubmissionToSession(session, submission), "Assignment failed");
+        store.indexAssignment(session, submission);
+        undo.add(() -> {
+            store.unindexAssignment(session, submission);
+            if (session.getSubmissions().size() > sessionSize) session.getSubmissions().remove(sessionSize);
+            if (!managed) coordinator.getManagedSessions().remove(session);
+            submission.setSession(oldSession);
+            submission.setBoardId(oldBoard);
+        });
+        journal(Journal.assignSubmission(coordinator, session, submission), Shard.SESSIONS, Shard.SUBMISSIONS, Shard.USERS);
+    }
+
+    public void unassignSubmission(Session session, Submission submission) {
+        requireStored(session);
+        requireStored(submission);
+
+        if (remove(session.getSubmissions(), submission)) {
+            store.unindexAssignment(session, submission);
+            undo.add(() -> store.indexAssignment(session, submission));
+        }
+        Session previous = submission.getSession();
+        submission.setSession(null);
+        undo.add(() -> submission.setSession(previous));
+        journal(Journal.unassignSubmission(session, submission), Shard.SESSIONS, Shard.SUBMISSIONS);
+    }
+
+    public void assignEvaluator(Coordinator coordinator, Session session, Evaluator evaluator) {
+        require(coordinator != null, "Coordinator is required");
+        requireStored(session);
+        require(evaluator != null && store.findUser(evaluator.getUserId()) == evaluator, "Unknown evaluator");
+        if (!session.getEvaluators().contains(evaluator)) {
+            checkEvaluatorFree(session, evaluator, SessionSchedule.interval(session.getDate(), session.getTime()));
+        }
+
+        if (!coordinator.getManagedSessions().contains(session)) add(coordinator.getManagedSessions(), session);
+        if (!session.getEvaluators().contains(evaluator)) {
+            add(session.getEvaluators(), evaluator);
+            store.indexEvaluator(session, evaluator);
+            undo.add(() -> store.unindexEvaluator(session, evaluator));
+        }
+        if (!evaluator.getAssignedSessions().contains(session)) add(evaluator.getAssignedSessions(), session);
+        journal(Journal.assignEvaluator(coordinator, session, evaluator), Shard.SESSIONS, Shard.USERS);
+    }
+
+    public void unassignEvaluator(Session session, Evaluator evaluator) {
+        requireStored(session);
+        require(evaluator != null, "Evaluator is required");
+
+        if (remove(session.getEvaluators(), evaluator)) {
+            store.unindexEvaluator(session, evaluator);
+            undo.add(() -> store.indexEvaluator(session, evaluator));
+        }
+        journal(Journal.unassignEvaluator(session, evaluator), Shard.SESSIONS);
+    }
+
+    // Evaluations
+
+    public void addEvaluation(Evaluation evaluation) {
+        require(evaluation != null && evaluation.getEvaluationId() != null, "Evaluation and evaluation ID are required");
+        check(store.findEvaluation(evaluation.getEvaluationId()) == null,
+                "Evaluation ID already exists: " + evaluation.getEvaluationId());
+
+        add(store.evaluations, evaluation);
+        store.index(evaluation);
+        undo.add(() -> store.unindex(evaluation));
+        // A caller may have linked it already (Evaluator.evaluateSubmission); rollback unlinks it either way
+        Submission sub = evaluation.getSubmission();
+        if (sub != null) {
+            if (!sub.getEvaluations().contains(evaluation)) sub.addEvaluation(evaluation);
+            undo.add(() -> sub.removeEvaluation(evaluation));
+        }
+        Evaluator evaluator = evaluation.getEvaluator();
+        if (evaluator != null) {
+            if (!evaluator.getEvaluations().contains(evaluation)) evaluator.getEvaluations().add(evaluation);
+            undo.add(() -> evaluator.getEvaluations().remove(evaluation));
+        }
+        journal(Journal.addEvaluation(evaluation), Shard.EVALUATIONS, Shard.SUBMISSIONS, Shard.USERS);
+    }
+
+    // Scores go through here rather than the Evaluation setters, so the score columns,
+    // leaderboards, evaluator stats and distributions are redone along with the submission sums
+    public void updateEvaluation(Evaluation evaluation, int problemClarity, int methodology, int results,
+                                 int presentation, String comments) {
+        requireStored(evaluation);
+        require(inRange(problemClarity) && inRange(methodology) && inRange(results) && inRange(presentation),
+                "Scores must be between 0 and 10");
+
+        int oldClarity = evaluation.getProblemClarity();
+        int oldMethodology = evaluation.getMethodology();
+        int oldResults = evaluation.getResults();
+        int oldPresentation = evaluation.getPresentation();
+        Supplier<String> oldLoader = evaluation.getCommentsLoader();
+        String oldComments = (oldLoader == null) ? evaluation.getComments() : null;
+
+        store.unindex(evaluation);
+        setScores(evaluation, problemClarity, methodology, results, presentation);
+        evaluation.setComments(comments);
+        store.index(evaluation);
+        undo.add(() -> {
+            store.unindex(evaluation);
+            setScores(evaluation, oldClarity, oldMethodology, oldResults, oldPresentation);
+            if (oldLoader != null) evaluation.setCommentsLoader(oldLoader); // still undecoded
+            else evaluation.setComments(oldComments);
+            store.index(evaluation);
+        });
+        journal(Journal.updateEvaluation(evaluation), Shard.EVALUATIONS);
+    }
+
+    private static void setScores(Evaluation evaluation, int problemClarity, int methodology, int results,
+                                  int presentation) {
+        evaluation.setProblemClarity(problemClarity);
+        evaluation.setMethodology(methodology);
+        evaluation.setResults(results);
+        evaluation.setPresentation(presentation);
+    }
+
+    private static boolean inRange(int score) {
+        return score >= 0 && score <= 10;
+    }
+
+    // Also detaches it from its submission and evaluator
+    public void removeEvaluation(Evaluation evaluation) {
+        require(evaluation != null, "Evaluation is required");
+
+        if (remove(store.evaluations, evaluation)) {
+            store.unindex(evaluation);
+            undo.add(() -> store.index(evaluation));
+        }
+        Submission sub = evaluation.getSubmission();
+        int index = (sub == null) ? -1 : sub.getEvaluations().indexOf(evaluation);
+        if (index >= 0) {
+            sub.removeEvaluation(evaluation); // through Submission, so its score sums follow
+            undo.add(() -> sub.addEvaluation(index, evaluation));
+        }
+        if (evaluation.getEvaluator() != null) remove(evaluation.getEvaluator().getEvaluations(), evaluation);
+        journal(Journal.removeEvaluation(evaluation), Shard.EVALUATIONS, Shard.SUBMISSIONS, Shard.USERS);
+    }
+
+    // Awards
+
+    public void addAward(Award award) {
+        require(award != null, "Award is required");
+
+        add(store.awards, award);
+        journal(Journal.addAward(award), Shard.AWARDS);
+    }
+
+    // Commit / rollback (DataManager)
+
+    boolean isEmpty() {
+        return undo.isEmpty();
+    }
+
+    List<byte[]> records() {
+        return records;
+    }
+
+    Set<Shard> touched() {
+        return touched;
+    }
+
+    void rollback() {
+        for (int i = undo.size() - 1; i >= 0; i--) undo.get(i).run();
+        undo.clear();
+        records.clear();
+        touched.clear();
+    }
+
+    // Undoable edits
+
+    private <T> void add(List<T> list, T item) {
+        list.add(item);
+        undo.add(() -> list.remove(list.size() - 1));
+    }
+
+    private <T> boolean remove(List<T> list, T item) {
+        int index = list.indexOf(item);
+        if (index < 0) return false;
+        T removed = list.remove(index);
+        undo.add(() -> list.add(index, removed));
+        return true;
+    }
+
+    private <T> void clear(List<T> list) {
+        List<T> old = new ArrayList<>(list);
+        list.clear();
+        undo.add(() -> list.addAll(old));
+    }
+
+    private void journal(byte[] record, Shard... shards) {
+        records.add(record);
+        touched.addAll(Arrays.asList(shards));
+    }
+
+    // No other session may use the venue at that time, and the session's evaluators must be free then
+    private void checkBookable(Session session, String date, String time, String venue) {
+        long[] slot = SessionSchedule.interval(date, time);
+        if (slot == null) return; // free-form date: nothing to compare with
+
+        for (Session other : store.schedule().overlappingAt(venue, slot[0], slot[1])) {
+            check(other == session, "Venue " + venue + " is already booked by " + other.getSessionId()
+                    + " (" + other.getDate() + " " + other.getTime() + ")");
+        }
+        for (Evaluator evaluator : session.getEvaluators()) checkEvaluatorFree(session, evaluator, slot);
+    }
+
+    private void checkEvaluatorFree(Session session, Evaluator evaluator, long[] slot) {
+        if (slot == null) return;
+        for (Session other : store.schedule().overlapping(slot[0], slot[1])) {
+            check(other == session || !other.getEvaluators().contains(evaluator),
+                    "Evaluator " + evaluator.getUserId() + " is already booked in " + other.getSessionId()
+                            + " (" + other.getDate() + " " + other.getTime() + ")");
+        }
+    }
+
+    private void requireStored(Session session) {
+        require(session != null && store.findSession(session.getSessionId()) == session, "Unknown session");
+    }
+
+    private void requireStored(Submission submission) {
+        require(submission != null && store.findSubmission(submission.getSubmissionId()) == submission,
+                "Unknown submission");
+    }
+
+    private void requireStored(Evaluation evaluation) {
+        require(evaluation != null && store.findEvaluation(evaluation.getEvaluationId()) == evaluation,
+                "Unknown evaluation");
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) throw new IllegalArgumentException(message);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new IllegalStateException(message);
+    }
+}
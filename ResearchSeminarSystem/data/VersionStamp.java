@@ -0,0 +1,42 @@
+package data;
+
+import java.util.List;
+
+/**
+ * VersionStamp - cheap summary of what is committed on disk: the newest manifest
+ * generation (taken from the file names, which match their checksummed headers) plus
+ * the length of that generation's journal segment. Every commit moves one of the two,
+ * so comparing stamps tells whether a reload would see anything new without decoding.
+ */
+final class VersionStamp {
+    final long generation;
+    final long journalLength;
+
+    VersionStamp(long generation, long journalLength) {
+        this.generation = generation;
+        this.journalLength = journalLength;
+    }
+
+    static VersionStamp read(SnapshotFiles snapshots, Journal journal) {
+        List<Long> generations = snapshots.generations();
+        long generation = generations.isEmpty() ? -1 : generations.get(generations.size() - 1);
+        return new VersionStamp(generation, journal.segment(generation).length());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof VersionStamp)) return false;
+        VersionStamp other = (VersionStamp) o;
+        return generation == other.generation && journalLength == other.journalLength;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(generation) * 31 + Long.hashCode(journalLength);
+    }
+
+    @Override
+    public String toString() {
+        return generation + ":" + journalLength;
+    }
+}
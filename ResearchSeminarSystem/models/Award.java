@@ -3,6 +3,7 @@ package models;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.ToDoubleFunction;
 
 // Award class - represents awards for best presentations
 
@@ -15,7 +16,11 @@ public class Award implements Serializable {
     private double winningScore;
 
     public Award(String awardType) {
-        this.awardId = "AWD" + System.currentTimeMillis();
+        this(IdGenerator.next("AWD"), awardType);
+    }
+
+    public Award(String awardId, String awardType) {
+        this.awardId = awardId;
         this.awardType = awardType;
         this.winner = null;
         this.winningScore = 0.0;
@@ -52,6 +57,34 @@ public class Award implements Serializable {
         return winningScore;
     }
 
+    // Determine winner with Best Oral / Best Poster ranked by the given score instead of the
+    // raw average (e.g. a normalized score, which may be negative); People's Choice is unchanged
+    public void determineWinner(List<Submission> submissions, ToDoubleFunction<Submission> averageScore) {
+        if (!"Best Oral".equals(awardType) && !"Best Poster".equals(awardType)) {
+            determineWinner(submissions);
+            return;
+        }
+        if (submissions == null || submissions.isEmpty()) return;
+
+        String type = "Best Oral".equals(awardType) ? "Oral" : "Poster";
+        Submission best = null;
+        double bestScore = 0.0;
+
+        for (Submission sub : submissions) {
+            if (sub == null) continue;
+            if (sub.getEvaluations() == null || sub.getEvaluations().isEmpty()) continue;
+            if (!type.equalsIgnoreCase(sub.getPresentationType())) continue;
+
+            double score = averageScore.applyAsDouble(sub);
+            if (best == null || score > bestScore) {
+                bestScore = score;
+                best = sub;
+            }
+        }
+
+        setWinner(best, bestScore);
+    }
+
     // Determine winner from a list of submissions
     public void determineWinner(List<Submission> submissions) {
         if (submissions == null || submissions.isEmpty()) return;
@@ -74,12 +107,7 @@ public class Award implements Serializable {
                 score = sub.getAverageScore();
     
             } else if ("People's Choice".equals(awardType)) {
-                double total = 0.0;
-            for (Evaluation ev : sub.getEvaluations()) {
-                if (ev == null) continue;
-                total += ev.getTotalScore();
-            }
-            score = total;
+                score = sub.getTotalScore();
 
             } else {
                 continue;
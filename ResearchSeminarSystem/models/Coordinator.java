@@ -3,6 +3,7 @@ package models;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.ToDoubleFunction;
 
 // Coordinator class - represents faculty staff managing the seminar
 
@@ -32,7 +33,7 @@ public class Coordinator extends User implements Serializable {
 
     // Create and manage seminar session
     public Session createSession(String date, String venue, String sessionType) {
-        String sessionId = "SES" + System.currentTimeMillis();
+        String sessionId = IdGenerator.next("SES");
         Session session = new Session(sessionId, date, venue, sessionType);
         managedSessions.add(session);
         return session;
@@ -125,6 +126,23 @@ public class Coordinator extends User implements Serializable {
         return Report.generateEvaluationReport(sessions);
     }
 
+    // Evaluation report that also shows each submission's score from the given function
+    public Report generateEvaluationReport(List<Session> sessions, String scoreLabel,
+                                           ToDoubleFunction<Submission> score) {
+        return Report.generateEvaluationReport(sessions, scoreLabel, score);
+    }
+
+    // Awards with Best Oral / Best Poster ranked by the given score (e.g. normalized for evaluator bias)
+    public List<Award> computeAwards(List<Submission> submissions, ToDoubleFunction<Submission> averageScore) {
+        List<Award> result = new ArrayList<>();
+        for (String type : new String[]{"Best Oral", "Best Poster", "People's Choice"}) {
+            Award award = new Award(type);
+            award.determineWinner(submissions, averageScore);
+            result.add(award);
+        }
+        return result;
+    }
+
     // Compute awards (returns a LIST of 3 awards)
     public List<Award> computeAwards(List<Submission> submissions) {
         List<Award> result = new ArrayList<>();
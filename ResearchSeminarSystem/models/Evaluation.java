@@ -1,6 +1,9 @@
 package models;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.function.Supplier;
 
 // Evaluation class - represents an evaluation of a submission by an evaluator
 
@@ -13,6 +16,7 @@ public class Evaluation implements Serializable {
     private int results;           // Score out of 10
     private int presentation;      // Score out of 10
     private String comments;
+    private transient Supplier<String> commentsLoader; // set when loaded lazily from a snapshot
     private Submission submission;
     private Evaluator evaluator;
 
@@ -30,6 +34,8 @@ public class Evaluation implements Serializable {
     }
 
     // Getters and Setters
+    // The score setters only keep the submission's sums in step; an evaluation already in the
+    // store is edited through Transaction.updateEvaluation so its indexes follow as well
     public String getEvaluationId() {
         return evaluationId;
     }
@@ -39,7 +45,9 @@ public class Evaluation implements Serializable {
     }
 
     public void setProblemClarity(int problemClarity) {
+        int delta = problemClarity - this.problemClarity;
         this.problemClarity = problemClarity;
+        if (submission != null && delta != 0) submission.scoreChanged(this, delta, 0, 0, 0);
     }
 
     public int getMethodology() {
@@ -47,7 +55,9 @@ public class Evaluation implements Serializable {
     }
 
     public void setMethodology(int methodology) {
+        int delta = methodology - this.methodology;
         this.methodology = methodology;
+        if (submission != null && delta != 0) submission.scoreChanged(this, 0, delta, 0, 0);
     }
 
     public int getResults() {
@@ -55,7 +65,9 @@ public class Evaluation implements Serializable {
     }
 
     public void setResults(int results) {
+        int delta = results - this.results;
         this.results = results;
+        if (submission != null && delta != 0) submission.scoreChanged(this, 0, 0, delta, 0);
     }
 
     public int getPresentation() {
@@ -63,25 +75,51 @@ public class Evaluation implements Serializable {
     }
 
     public void setPresentation(int presentation) {
+        int delta = presentation - this.presentation;
         this.presentation = presentation;
+        if (submission != null && delta != 0) submission.scoreChanged(this, 0, 0, 0, delta);
     }
 
     public String getComments() {
+        if (commentsLoader != null) {
+            comments = commentsLoader.get();
+            commentsLoader = null;
+        }
         return comments;
     }
 
     public void setComments(String comments) {
         this.comments = comments;
+        this.commentsLoader = null;
+    }
+
+    // Defer decoding the comments until they are first read
+    public void setCommentsLoader(Supplier<String> loader) {
+        this.comments = null;
+        this.commentsLoader = loader;
+    }
+
+    // Pending loader, or null once the comments have been decoded
+    public Supplier<String> getCommentsLoader() {
+        return commentsLoader;
     }
 
     public Submission getSubmission() {
         return submission;
     }
 
+    public void setSubmission(Submission submission) {
+        this.submission = submission;
+    }
+
     public Evaluator getEvaluator() {
         return evaluator;
     }
 
+    public void setEvaluator(Evaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
     // Convenience getters (cleaner for dashboards/reports)
     public String getEvaluatorId() {
         return evaluator != null ? evaluator.getUserId() : "";
@@ -112,7 +150,7 @@ public class Evaluation implements Serializable {
      public String getDetails() {
         String evaluatorName = (evaluator != null) ? evaluator.getName() : "Unknown Evaluator";
         String submissionTitle = (submission != null) ? submission.getTitle() : "Unknown Submission";
-        String safeComments = (comments != null) ? comments : "";
+        String safeComments = (getComments() != null) ? getComments() : "";
     
         // wrap long comments so JOptionPane doesn't show 1 super long line
         String wrappedComments = wrapText(safeComments, 80); // 80 chars per line (change if you want)
@@ -162,6 +200,12 @@ public class Evaluation implements Serializable {
         return sb.toString();
     }
 
+    // The loader is transient, so resolve it before the default serialization runs
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getComments();
+        out.defaultWriteObject();
+    }
+
     @Override
     public String toString() {
         String submissionTitle = (submission != null) ? submission.getTitle() : "Unknown Submission";
@@ -52,7 +52,7 @@ public class Evaluator extends User implements Serializable {
             throw new IllegalArgumentException("Submission cannot be null.");
         }
 
-        String evalId = "EVAL" + System.currentTimeMillis();
+        String evalId = IdGenerator.next("EVAL");
         Evaluation evaluation = new Evaluation(evalId, problemClarity, methodology,
                 results, presentation, comments, submission, this);
 
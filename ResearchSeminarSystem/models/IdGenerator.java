@@ -0,0 +1,23 @@
+package models;
+
+import java.util.function.Function;
+
+// IdGenerator - supplies the IDs of entities created by the models (sessions, submissions,
+// evaluations, awards, reports). DataManager plugs in its persistent per-prefix sequence at
+// startup; without it, IDs fall back to the prefix plus the current time.
+
+public final class IdGenerator {
+    private static final Function<String, String> TIME_BASED = prefix -> prefix + System.currentTimeMillis();
+
+    private static volatile Function<String, String> source = TIME_BASED;
+
+    private IdGenerator() {}
+
+    public static void setSource(Function<String, String> newSource) {
+        source = (newSource != null) ? newSource : TIME_BASED;
+    }
+
+    public static String next(String prefix) {
+        return source.apply(prefix);
+    }
+}
@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.ToDoubleFunction;
 
 // Report class - generates various reports for the seminar
 
@@ -17,7 +18,7 @@ public class Report implements Serializable {
     private String generatedDate;
 
     public Report(String reportType, String content) {
-        this.reportId = "REP" + System.currentTimeMillis();
+        this.reportId = IdGenerator.next("REP");
         this.reportType = reportType;
         this.content = (content == null) ? "" : content;
         this.generatedDate = LocalDateTime.now().toString();
@@ -67,6 +68,12 @@ public class Report implements Serializable {
     }
 
     public static Report generateEvaluationReport(List<Session> sessions) {
+        return generateEvaluationReport(sessions, null, null);
+    }
+
+    // scoreLabel/score: an extra per-submission score to show below the average (optional)
+    public static Report generateEvaluationReport(List<Session> sessions, String scoreLabel,
+                                                  ToDoubleFunction<Submission> score) {
         StringBuilder content = new StringBuilder();
         content.append("=== EVALUATION REPORT ===\n");
         content.append("Generated: ").append(LocalDateTime.now()).append("\n\n");
@@ -97,6 +104,10 @@ public class Report implements Serializable {
                 content.append("  Student: ").append(submission.getStudentName()).append("\n");
                 content.append("  Type: ").append(submission.getPresentationType()).append("\n");
                 content.append("  Average Score: ").append(String.format("%.2f", submission.getAverageScore())).append("\n");
+                if (score != null) {
+                    content.append("  ").append(scoreLabel).append(": ")
+                            .append(String.format("%+.2f", score.applyAsDouble(submission))).append("\n");
+                }
 
                 List<Evaluation> evals = submission.getEvaluations();
                 int evalCount = (evals == null) ? 0 : evals.size();
@@ -160,6 +171,22 @@ public class Report implements Serializable {
 
     // Statistics
 
+    // Counts as below, followed by the median and quartiles of every criterion and of the total
+    // in the given distribution
+    public static String generateStatistics(List<Session> sessions, ScoreDistribution scores) {
+        StringBuilder sb = new StringBuilder(generateStatistics(sessions));
+        if (scores == null || scores.getCount() == 0) return sb.toString();
+
+        sb.append(String.format("\nScore Distribution over %d evaluations (median [25th-75th percentile]):\n",
+                scores.getCount()));
+        for (int m = ScoreDistribution.PROBLEM_CLARITY; m <= ScoreDistribution.TOTAL; m++) {
+            int max = (m == ScoreDistribution.TOTAL) ? ScoreDistribution.TOTAL_MAX : ScoreDistribution.CRITERION_MAX;
+            sb.append(String.format("%s: %d/%d [%d-%d]\n", ScoreDistribution.measureName(m),
+                    scores.getMedian(m), max, scores.getPercentile(m, 25), scores.getPercentile(m, 75)));
+        }
+        return sb.toString();
+    }
+
     public static String generateStatistics(List<Session> sessions) {
         if (sessions == null) sessions = java.util.Collections.emptyList();
 
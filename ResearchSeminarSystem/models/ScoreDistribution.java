@@ -0,0 +1,104 @@
+package models;
+
+// ScoreDistribution - how often each score was given, per rubric criterion and for the total.
+// Scores are whole numbers 0-10 per criterion (0-40 total), so one bin per possible score holds
+// the exact distribution in a fixed 85 ints; medians and percentiles are read from the bins.
+
+public class ScoreDistribution {
+    // Measures
+    public static final int PROBLEM_CLARITY = 0;
+    public static final int METHODOLOGY = 1;
+    public static final int RESULTS = 2;
+    public static final int PRESENTATION = 3;
+    public static final int TOTAL = 4;
+
+    public static final int CRITERION_MAX = 10;
+    public static final int TOTAL_MAX = 4 * CRITERION_MAX;
+
+    private final int[][] bins = new int[TOTAL + 1][];
+    private int count;
+
+    public ScoreDistribution() {
+        for (int m = 0; m < TOTAL; m++) bins[m] = new int[CRITERION_MAX + 1];
+        bins[TOTAL] = new int[TOTAL_MAX + 1];
+    }
+
+    // Copy, e.g. to hand out a snapshot
+    public ScoreDistribution(ScoreDistribution other) {
+        for (int m = 0; m <= TOTAL; m++) bins[m] = other.bins[m].clone();
+        count = other.count;
+    }
+
+    public void add(int problemClarity, int methodology, int results, int presentation) {
+        record(problemClarity, methodology, results, presentation, 1);
+    }
+
+    // Take back scores that were added before
+    public void remove(int problemClarity, int methodology, int results, int presentation) {
+        record(problemClarity, methodology, results, presentation, -1);
+    }
+
+    private void record(int problemClarity, int methodology, int results, int presentation, int sign) {
+        int c = clamp(problemClarity, CRITERION_MAX);
+        int m = clamp(methodology, CRITERION_MAX);
+        int r = clamp(results, CRITERION_MAX);
+        int p = clamp(presentation, CRITERION_MAX);
+        bins[PROBLEM_CLARITY][c] += sign;
+        bins[METHODOLOGY][m] += sign;
+        bins[RESULTS][r] += sign;
+        bins[PRESENTATION][p] += sign;
+        bins[TOTAL][c + m + r + p] += sign;
+        count += sign;
+    }
+
+    // Number of evaluations counted
+    public int getCount() {
+        return count;
+    }
+
+    // How many evaluations gave each score (index = score) for a measure
+    public int[] getHistogram(int measure) {
+        return bins[measure].clone();
+    }
+
+    public double getMean(int measure) {
+        if (count == 0) return 0.0;
+        long sum = 0;
+        int[] b = bins[measure];
+        for (int score = 0; score < b.length; score++) sum += (long) score * b[score];
+        return (double) sum / count;
+    }
+
+    // Smallest score that at least percent% of the evaluations are at or below (nearest rank);
+    // 0 when nothing was counted
+    public int getPercentile(int measure, double percent) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percent / 100.0 * count));
+        int[] b = bins[measure];
+        long seen = 0;
+        for (int score = 0; score < b.length; score++) {
+            seen += b[score];
+            if (seen >= rank) return score;
+        }
+        return b.length - 1;
+    }
+
+    // Lower median for an even count
+    public int getMedian(int measure) {
+        return getPercentile(measure, 50);
+    }
+
+    public static String measureName(int measure) {
+        switch (measure) {
+            case PROBLEM_CLARITY: return "Problem Clarity";
+            case METHODOLOGY: return "Methodology";
+            case RESULTS: return "Results";
+            case PRESENTATION: return "Presentation";
+            default: return "Total";
+        }
+    }
+
+    private static int clamp(int score, int max) {
+        return Math.max(0, Math.min(max, score));
+    }
+}
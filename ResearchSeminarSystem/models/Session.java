@@ -1,14 +1,26 @@
 package models;
 
 import java.io.Serializable;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 // Session class - represents a seminar session
 
 public class Session implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    // Start of a session whose date cannot be read
+    public static final long UNSCHEDULED = Long.MIN_VALUE;
+
+    private static final Pattern DATE = Pattern.compile("(\\d{1,2})/(\\d{1,2})/(\\d{4})");
+    private static final Pattern TIME = Pattern.compile("(\\d{1,2})(?::(\\d{2}))?\\s*([AaPp][Mm])?");
+
     private String sessionId;
     private String date;
     private String time;          
@@ -17,6 +29,10 @@ public class Session implements Serializable {
     private List<Submission> submissions;
     private List<Evaluator> evaluators;
 
+    // Parsed from date and time when first needed, and again after either changes
+    private transient long startMinute;
+    private transient boolean startParsed;
+
     public Session(String sessionId, String date, String time, String venue, String sessionType) {
         this.sessionId = sessionId;
         this.date = date;
@@ -42,6 +58,7 @@ public class Session implements Serializable {
 
     public void setDate(String date) {
         this.date = date;
+        this.startParsed = false;
     }
 
     public String getTime() {
@@ -50,6 +67,21 @@ public class Session implements Serializable {
 
     public void setTime(String time) {
         this.time = time;
+        this.startParsed = false;
+    }
+
+    // Start as minutes since 1970-01-01 00:00 (midnight of the date when no time is set),
+    // or UNSCHEDULED
+    public long getStartMinute() {
+        if (!startParsed) {
+            startMinute = parseStartMinute(date, time);
+            startParsed = true;
+        }
+        return startMinute;
+    }
+
+    public boolean hasTime() {
+        return time != null && !time.trim().isEmpty();
     }
 
     public String getVenue() {
@@ -151,6 +183,38 @@ public class Session implements Serializable {
         return details.toString();
     }
 
+    // Minutes since 1970-01-01 00:00 for a DD/MM/YYYY date and an optional time such as 10AM,
+    // 2:30PM or 14:30; UNSCHEDULED when the date or time cannot be read
+    public static long parseStartMinute(String date, String time) {
+        if (date == null) return UNSCHEDULED;
+        Matcher d = DATE.matcher(date.trim());
+        if (!d.matches()) return UNSCHEDULED;
+
+        long day;
+        try {
+            day = LocalDate.of(Integer.parseInt(d.group(3)), Integer.parseInt(d.group(2)),
+                    Integer.parseInt(d.group(1))).toEpochDay() * 24 * 60;
+        } catch (DateTimeException e) {
+            return UNSCHEDULED;
+        }
+        if (time == null || time.trim().isEmpty()) return day;
+
+        Matcher t = TIME.matcher(time.trim());
+        if (!t.matches()) return UNSCHEDULED;
+        int hour = Integer.parseInt(t.group(1));
+        int minute = (t.group(2) == null) ? 0 : Integer.parseInt(t.group(2));
+        if (t.group(3) != null && hour <= 12) { // "14:30PM" passes the form's check; read it as 24-hour
+            boolean pm = Character.toUpperCase(t.group(3).charAt(0)) == 'P';
+            hour = (hour % 12) + (pm ? 12 : 0);
+        }
+        if (hour > 23 || minute > 59) return UNSCHEDULED;
+        return day + hour * 60 + minute;
+    }
+
+    public static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
     @Override
     public String toString() {
         String safeTime = (time != null && !time.trim().isEmpty()) ? time : "";
@@ -34,7 +34,7 @@ public class Student extends User implements Serializable {
     public Submission registerSubmission(String title, String abstractText, String supervisorName,
                                          String presentationType, String filePath) {
 
-        String submissionId = "SUB" + System.currentTimeMillis();
+        String submissionId = IdGenerator.next("SUB");
 
         Submission submission = new Submission(
                 submissionId,
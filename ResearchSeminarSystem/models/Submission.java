@@ -1,8 +1,12 @@
 package models;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 // Submission class - represents a research presentation submission
 
@@ -12,6 +16,7 @@ public class Submission implements Serializable {
     private String submissionId;
     private String title;
     private String abstractText;
+    private transient Supplier<String> abstractTextLoader; // set when loaded lazily from a snapshot
 
     private String supervisorName;
 
@@ -24,6 +29,17 @@ public class Submission implements Serializable {
 
     private String boardId; // For poster presentations
 
+    // Running score sums over the evaluations list, so score reads do not walk it. The list is
+    // only changed through add/removeEvaluation, which keep them up to date along with the
+    // Evaluation setters, and setEvaluations, which has them rebuilt on the next read.
+    private transient boolean scored;   // the sums match the list (false after loading)
+    private transient int scoredCount;  // non-null evaluations
+    private transient long totalSum;
+    private transient long claritySum;
+    private transient long methodologySum;
+    private transient long resultsSum;
+    private transient long presentationSum;
+
     //Main constructor
     public Submission(String submissionId, String title, String abstractText,
                       String supervisorName, String presentationType,
@@ -62,11 +78,27 @@ public class Submission implements Serializable {
     }
 
     public String getAbstractText() {
+        if (abstractTextLoader != null) {
+            abstractText = abstractTextLoader.get();
+            abstractTextLoader = null;
+        }
         return abstractText;
     }
 
     public void setAbstractText(String abstractText) {
         this.abstractText = abstractText;
+        this.abstractTextLoader = null;
+    }
+
+    // Defer decoding the abstract until it is first read
+    public void setAbstractTextLoader(Supplier<String> loader) {
+        this.abstractText = null;
+        this.abstractTextLoader = loader;
+    }
+
+    // Pending loader, or null once the abstract has been decoded
+    public Supplier<String> getAbstractTextLoader() {
+        return abstractTextLoader;
     }
 
     public String getSupervisorName() {
@@ -110,7 +142,20 @@ public class Submission implements Serializable {
         this.student = student;
     }
 
+    // Read-only; changed through add/removeEvaluation and setEvaluations
     public List<Evaluation> getEvaluations() {
+        return Collections.unmodifiableList(evaluations());
+    }
+
+    // Replace the whole list, e.g. when loading or merging
+    public void setEvaluations(List<Evaluation> evaluations) {
+        List<Evaluation> list = evaluations();
+        list.clear();
+        list.addAll(evaluations);
+        scored = false;
+    }
+
+    private List<Evaluation> evaluations() {
         if (evaluations == null) evaluations = new ArrayList<>();
         return evaluations;
     }
@@ -135,39 +180,84 @@ public class Submission implements Serializable {
     // Evaluation helpers 
 
     public void addEvaluation(Evaluation evaluation) {
+        addEvaluation(evaluations().size(), evaluation);
+    }
+
+    // Insert at a position, e.g. to put back an evaluation that was removed
+    public void addEvaluation(int index, Evaluation evaluation) {
         if (evaluation == null) return;
-        getEvaluations().add(evaluation);
+        evaluations().add(index, evaluation);
+        if (scored) count(evaluation, 1);
     }
 
     public void removeEvaluation(Evaluation evaluation) {
         if (evaluation == null) return;
-        getEvaluations().remove(evaluation);
+        if (evaluations().remove(evaluation) && scored) count(evaluation, -1);
     }
 
     public double getAverageScore() {
-        List<Evaluation> evals = getEvaluations();
-        if (evals.isEmpty()) return 0.0;
-
-        double total = 0.0;
-        int count = 0;
-        for (Evaluation ev : evals) {
-            if (ev == null) continue;
-            total += ev.getTotalScore();
-            count++;
-        }
-        return (count == 0) ? 0.0 : total / count;
+        refreshScores();
+        return (scoredCount == 0) ? 0.0 : (double) totalSum / scoredCount;
     }
     
     public double getTotalScore() {
-        List<Evaluation> evals = getEvaluations();
-        if (evals.isEmpty()) return 0.0;
-    
-        double total = 0.0;
-        for (Evaluation ev : evals) {
-            if (ev == null) continue;
-            total += ev.getTotalScore(); // same as avg logic, but no divide
-        }
-        return total;
+        refreshScores();
+        return totalSum;
+    }
+
+    // Number of (non-null) evaluations the scores are taken over
+    public int getEvaluationCount() {
+        refreshScores();
+        return scoredCount;
+    }
+
+    public double getAverageProblemClarity() {
+        refreshScores();
+        return (scoredCount == 0) ? 0.0 : (double) claritySum / scoredCount;
+    }
+
+    public double getAverageMethodology() {
+        refreshScores();
+        return (scoredCount == 0) ? 0.0 : (double) methodologySum / scoredCount;
+    }
+
+    public double getAverageResults() {
+        refreshScores();
+        return (scoredCount == 0) ? 0.0 : (double) resultsSum / scoredCount;
+    }
+
+    public double getAveragePresentation() {
+        refreshScores();
+        return (scoredCount == 0) ? 0.0 : (double) presentationSum / scoredCount;
+    }
+
+    // Called by Evaluation when one of its scores changes; an evaluation is in the list of the
+    // submission it points to
+    void scoreChanged(Evaluation evaluation, int clarity, int methodology, int results, int presentation) {
+        if (!scored || evaluation.getSubmission() != this) return;
+        claritySum += clarity;
+        methodologySum += methodology;
+        resultsSum += results;
+        presentationSum += presentation;
+        totalSum += clarity + methodology + results + presentation;
+    }
+
+    private void refreshScores() {
+        if (scored) return;
+        scoredCount = 0;
+        totalSum = claritySum = methodologySum = resultsSum = presentationSum = 0;
+        for (Evaluation ev : evaluations()) count(ev, 1);
+        scored = true;
+    }
+
+    private void count(Evaluation ev, int sign) {
+        if (ev == null) return;
+        scoredCount += sign;
+        claritySum += sign * ev.getProblemClarity();
+        methodologySum += sign * ev.getMethodology();
+        resultsSum += sign * ev.getResults();
+        presentationSum += sign * ev.getPresentation();
+        totalSum += sign * ev.getTotalScore();
     }
 
     // Details 
@@ -175,7 +265,7 @@ public class Submission implements Serializable {
     public String getDetails() {
         String safeId = (submissionId != null) ? submissionId : "";
         String safeTitle = (title != null) ? title : "";
-        String safeAbstract = (abstractText != null) ? abstractText : "";
+        String safeAbstract = (getAbstractText() != null) ? getAbstractText() : "";
         String safeSupervisor = (supervisorName != null) ? supervisorName : "";
         String safeType = (presentationType != null) ? presentationType : "";
         String safeFile = (filePath != null && !filePath.isEmpty()) ? filePath : "Not uploaded";
@@ -186,7 +276,7 @@ public class Submission implements Serializable {
             safeBoard = (boardId != null && !boardId.trim().isEmpty()) ? boardId : "(Not assigned)";
         }
 
-        int evalCount = getEvaluations().size();
+        int evalCount = evaluations().size();
         double avg = getAverageScore();
 
         return String.format(
@@ -213,6 +303,12 @@ public class Submission implements Serializable {
         );
     }
 
+    // The loader is transient, so resolve it before the default serialization runs
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getAbstractText();
+        out.defaultWriteObject();
+    }
+
     @Override
     public String toString() {
         String safeTitle = (title != null) ? title : "";
@@ -31,6 +31,9 @@ public class CoordinatorDashboard extends JFrame {
     private JTextArea outputArea;
     
     private TableRowSorter<DefaultTableModel> submissionSorter;
+    private JTextField submissionSearchField;
+    private static final int MAX_SEARCH_RESULTS = 500;
+    private static final String NORMALIZED_SCORE_LABEL = "Normalized Score (vs. evaluator average)";
 
     // Create session form fields
     private JTextField dateField;
@@ -47,6 +50,13 @@ public class CoordinatorDashboard extends JFrame {
     private JPanel evaluatorsWrap;
 
 
+    // Refreshes the tables when another window or process commits changes
+    private final Runnable dataChangeListener = () -> {
+        loadSessions();
+        loadSubmissions();
+        loadEvaluators();
+    };
+
     public CoordinatorDashboard(Coordinator coordinator) {
         this.coordinator = coordinator;
         this.dataManager = DataManager.getInstance();
@@ -58,6 +68,7 @@ public class CoordinatorDashboard extends JFrame {
         loadSessions();
         loadSubmissions();
         loadEvaluators();
+        dataManager.addChangeListener(dataChangeListener);
     }
 
     private void setWindowIcon() {
@@ -221,6 +232,20 @@ public class CoordinatorDashboard extends JFrame {
 
         submissionsWrap = wrap("Submissions", submissionTable);
         center.add(submissionsWrap);
+
+        // Search box: ranked full-text search over title, abstract and supervisor
+        submissionSearchField = new JTextField();
+        submissionSearchField.setFont(new Font("Arial", Font.PLAIN, 12));
+        submissionSearchField.setToolTipText("Search title, abstract or supervisor (best matches first)");
+        submissionSearchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { loadSubmissions(); }
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { loadSubmissions(); }
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { loadSubmissions(); }
+        });
+        JPanel searchRow = new JPanel(new BorderLayout(5, 0));
+        searchRow.add(new JLabel("Search:"), BorderLayout.WEST);
+        searchRow.add(submissionSearchField, BorderLayout.CENTER);
+        submissionsWrap.add(searchRow, BorderLayout.NORTH);
         submissionSorter = new TableRowSorter<>(submissionModel);
         submissionTable.setRowSorter(submissionSorter);
         
@@ -364,6 +389,19 @@ public class CoordinatorDashboard extends JFrame {
             exportBtn.addActionListener(e -> exportOutput());
             exportPanel.add(exportBtn);
 
+            // Near-duplicate check over every submission
+            JButton duplicatesBtn = new JButton("Find Duplicate Submissions");
+            duplicatesBtn.addActionListener(e -> generateDuplicateReport());
+            exportPanel.add(duplicatesBtn);
+
+            JButton scoreSummaryBtn = new JButton("Score Summary");
+            scoreSummaryBtn.addActionListener(e -> generateScoreSummary());
+            exportPanel.add(scoreSummaryBtn);
+
+            JButton exportScoresBtn = new JButton("Export Scores (CSV)");
+            exportScoresBtn.addActionListener(e -> exportScoresCsv());
+            exportPanel.add(exportScoresBtn);
+
             // Top controls
             JPanel topPanel = new JPanel(new BorderLayout(10, 10));
             topPanel.add(schedulePanel, BorderLayout.NORTH);
@@ -397,6 +435,11 @@ public class CoordinatorDashboard extends JFrame {
             top.add(new JLabel("Session:"));
             top.add(awardsSessionCombo);
             top.add(computeBtn);
+
+            // Rank Best Oral / Best Poster by scores adjusted for each evaluator's strictness
+            JCheckBox normalizeBox = new JCheckBox("Adjust for evaluator bias");
+            normalizeBox.setToolTipText("Compare each score with the evaluator's own average and spread");
+            top.add(normalizeBox);
             panel.add(top, BorderLayout.NORTH);
         
             // Cards container
@@ -414,7 +457,7 @@ public class CoordinatorDashboard extends JFrame {
         
             // Button action
             computeBtn.addActionListener(e -> {
-                List<Session> sessions = dataManager.getSessions();
+                List<Session> sessions = dataManager.getSessionsByDate();
                 if (sessions.isEmpty()) {
                     JOptionPane.showMessageDialog(this, "No sessions available.",
                             "No Data", JOptionPane.INFORMATION_MESSAGE);
@@ -423,32 +466,32 @@ public class CoordinatorDashboard extends JFrame {
 
                 try {
                     int selectedIndex = awardsSessionCombo.getSelectedIndex();
-                    List<Session> selectedSessions = new ArrayList<>();
-                    if (selectedIndex == 0) {
-                        selectedSessions.addAll(sessions);
-                    } else {
-                        selectedSessions.add(sessions.get(selectedIndex - 1));
-                    }
-
-                    // Get eligible submissions from selected sessions
-                    java.util.List<Submission> eligible = new ArrayList<>();
-                    for (Session s : selectedSessions) {
-                        for (Submission sub : s.getSubmissions()) {
-                            if (sub != null && sub.getEvaluations() != null && !sub.getEvaluations().isEmpty()) {
-                                eligible.add(sub);
+                    Session selected = (selectedIndex <= 0) ? null : sessions.get(selectedIndex - 1);
+
+                    boolean normalized = normalizeBox.isSelected();
+                    java.util.List<Award> awards;
+                    if (normalized) {
+                        java.util.List<Submission> eligible = new ArrayList<>();
+                        for (Session s : (selected == null) ? sessions : java.util.Collections.singletonList(selected)) {
+                            for (Submission sub : s.getSubmissions()) {
+                                if (sub != null && !sub.getEvaluations().isEmpty()) eligible.add(sub);
                             }
                         }
+                        awards = coordinator.computeAwards(eligible, dataManager::getNormalizedScore);
+                    } else {
+                        // Standings are kept sorted as evaluations arrive, so this is a read
+                        awards = dataManager.computeAwards(selected);
                     }
-        
-                    if (eligible.isEmpty()) {
+                    boolean anyWinner = false;
+                    for (Award a : awards) anyWinner |= (a.getWinner() != null);
+
+                    if (!anyWinner) {
                         oralCard.setEmpty("No eligible submissions in selected session(s).");
                         posterCard.setEmpty("No eligible submissions in selected session(s).");
                         peopleCard.setEmpty("No eligible submissions in selected session(s).");
                         return;
                     }
         
-                    java.util.List<Award> awards = coordinator.computeAwards(eligible);
-        
                     // reset all first
                     oralCard.setEmpty("Not computed.");
                     posterCard.setEmpty("Not computed.");
@@ -459,12 +502,15 @@ public class CoordinatorDashboard extends JFrame {
                         if (a == null) continue;
                         String type = a.getAwardType();
         
+                        String runnersUp = normalized ? "" : runnersUpText(type, selected);
+                        String metric = normalized ? "Normalized Score" : "Average Score";
+        
                         if ("Best Oral".equalsIgnoreCase(type)) {
-                            oralCard.setAward(a, false); // false = average metric
+                            oralCard.setAward(a, metric, runnersUp);
                         } else if ("Best Poster".equalsIgnoreCase(type)) {
-                            posterCard.setAward(a, false);
+                            posterCard.setAward(a, metric, runnersUp);
                         } else if ("People's Choice".equalsIgnoreCase(type)) {
-                            peopleCard.setAward(a, true); // true = total marks metric
+                            peopleCard.setAward(a, "Total Marks", runnersUp);
                         }
                     }
         
@@ -485,6 +531,7 @@ public class CoordinatorDashboard extends JFrame {
             private final JLabel submissionTitle;
             private final JLabel submissionId;
             private final JLabel scoreLabel;
+            private final JLabel runnersUpLabel;
         
             public AwardCard(String title) {
                 setLayout(new BorderLayout(8, 8));
@@ -501,11 +548,13 @@ public class CoordinatorDashboard extends JFrame {
                 submissionTitle = new JLabel("Submission: -");
                 submissionId = new JLabel("ID: -");
                 scoreLabel = new JLabel("Score: -");
+                runnersUpLabel = new JLabel("");
         
                 winnerName.setFont(new Font("Arial", Font.PLAIN, 13));
                 submissionTitle.setFont(new Font("Arial", Font.PLAIN, 13));
                 submissionId.setFont(new Font("Arial", Font.PLAIN, 12));
                 scoreLabel.setFont(new Font("Arial", Font.BOLD, 13));
+                runnersUpLabel.setFont(new Font("Arial", Font.PLAIN, 12));
         
                 JPanel body = new JPanel();
                 body.setOpaque(false);
@@ -518,6 +567,8 @@ public class CoordinatorDashboard extends JFrame {
                 body.add(submissionId);
                 body.add(Box.createVerticalStrut(12));
                 body.add(scoreLabel);
+                body.add(Box.createVerticalStrut(12));
+                body.add(runnersUpLabel);
         
                 add(awardTitle, BorderLayout.NORTH);
                 add(body, BorderLayout.CENTER);
@@ -528,10 +579,11 @@ public class CoordinatorDashboard extends JFrame {
                 submissionTitle.setText("");
                 submissionId.setText("");
                 scoreLabel.setText("");
+                runnersUpLabel.setText("");
             }
         
-            /** isPeopleChoice=true => show Total Marks label */
-            public void setAward(Award a, boolean isPeopleChoice) {
+            /** metric labels the winning score; runnersUp is HTML (may be empty) */
+            public void setAward(Award a, String metric, String runnersUp) {
                 if (a == null || a.getWinner() == null) {
                     setEmpty("Winner: Not yet determined");
                     return;
@@ -545,12 +597,31 @@ public class CoordinatorDashboard extends JFrame {
                 submissionTitle.setText("Submission: " + title);
                 submissionId.setText("ID: " + w.getSubmissionId());
         
-                String label = isPeopleChoice ? "Total Marks" : "Average Score";
-                scoreLabel.setText(label + ": " + String.format("%.2f", a.getWinningScore()));
+                scoreLabel.setText(metric + ": " + String.format("%.2f", a.getWinningScore()));
+                runnersUpLabel.setText(runnersUp);
             }
         }
 
 
+    // Places 2 to 3 of an award category, as HTML for an AwardCard
+    private String runnersUpText(String category, Session session) {
+        List<Submission> top = dataManager.getLeaderboard(category, session, 3);
+        if (top.size() < 2) return "";
+
+        StringBuilder sb = new StringBuilder("<html>Runners-up:");
+        for (int i = 1; i < top.size(); i++) {
+            Submission sub = top.get(i);
+            String student = (sub.getStudentName() == null) ? "Unknown" : sub.getStudentName();
+            sb.append("<br>").append(i + 1).append(". ").append(escapeHtml(student))
+                    .append(String.format(" (%.2f)", dataManager.getLeaderboardScore(category, sub)));
+        }
+        return sb.append("</html>").toString();
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
     // Actions 
     private void createSession() {
         String date = dateField.getText().trim();
@@ -580,6 +651,13 @@ public class CoordinatorDashboard extends JFrame {
             return;
         }
 
+        // The venue must be free at that time
+        List<Session> clashes = dataManager.findVenueConflicts(date, time, venue, null);
+        if (!clashes.isEmpty()) {
+            showVenueConflict(venue, clashes);
+            return;
+        }
+
         // Confirmation dialog
         int confirm = JOptionPane.showConfirmDialog(this,
                 "Create session on " + date + "?\n\nWarning: This action cannot be undone.",
@@ -590,13 +668,12 @@ public class CoordinatorDashboard extends JFrame {
         if (confirm != JOptionPane.YES_OPTION) return;
 
         try {
-            Session session = coordinator.createSession(date, venue, type);
+            // Not through coordinator.createSession: the add links it, so a rejected add leaves no trace
+            Session session = new Session(dataManager.generateId("SES"), date, venue, type);
 
             session.setTime(time);
 
-            dataManager.addSession(session);
-
-            dataManager.saveToDisk();
+            dataManager.addSession(session, coordinator);
 
             JOptionPane.showMessageDialog(this, "Session created!\nID: " + session.getSessionId(),
                     "Success", JOptionPane.INFORMATION_MESSAGE);
@@ -612,6 +689,15 @@ public class CoordinatorDashboard extends JFrame {
         }
     }
 
+    private void showVenueConflict(String venue, List<Session> clashes) {
+        StringBuilder msg = new StringBuilder(venue + " is already booked at that time by:\n");
+        for (Session s : clashes) {
+            msg.append("  ").append(s.getSessionId()).append(" - ").append(s.getDate())
+                    .append(" ").append(s.getTime()).append("\n");
+        }
+        JOptionPane.showMessageDialog(this, msg.toString(), "Venue Conflict", JOptionPane.ERROR_MESSAGE);
+    }
+
     private boolean isValidTimeFormat(String time) {
         // Accept formats like: 10AM, 10:30AM, 14:30, 2:30PM, 09:00, etc.
         return time.matches("^([0-1]?[0-9]|2[0-3])(:[0-5][0-9])?(AM|PM|am|pm)?$");
@@ -667,11 +753,20 @@ public class CoordinatorDashboard extends JFrame {
                 return;
             }
 
-            session.setDate(newDateText);
-            session.setTime(newTimeText);
-            session.setVenue(newVenueText);
-    
-            dataManager.saveToDisk();
+            List<Session> clashes = dataManager.findVenueConflicts(newDateText, newTimeText, newVenueText, session);
+            if (!clashes.isEmpty()) {
+                showVenueConflict(newVenueText, clashes);
+                return;
+            }
+
+            try {
+                dataManager.transaction(tx -> tx.updateSession(session, newDateText, newTimeText, newVenueText));
+            } catch (IllegalArgumentException | IllegalStateException ex) {
+                // e.g. an assigned evaluator is booked elsewhere at the new time
+                JOptionPane.showMessageDialog(this, "Session not updated:\n" + ex.getMessage(),
+                        "Schedule Conflict", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
             loadSessions();
             loadSubmissions();
             JOptionPane.showMessageDialog(this, "Session updated.",
@@ -698,18 +793,8 @@ public class CoordinatorDashboard extends JFrame {
                 JOptionPane.WARNING_MESSAGE);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            // Unassign all submissions from this session
-            for (Submission sub : session.getSubmissions()) {
-                sub.setSession(null);
-            }
-            session.getSubmissions().clear();
-
-            // Unassign all evaluators from this session
-            session.getEvaluators().clear();
-
-            // Remove session from datastore
-            dataManager.getSessions().remove(session);
-            dataManager.saveToDisk();
+            // Unassigns all submissions and evaluators, then removes the session
+            dataManager.transaction(tx -> tx.deleteSession(session));
             loadSessions();
             loadSubmissions();
             loadEvaluators();
@@ -745,10 +830,7 @@ public class CoordinatorDashboard extends JFrame {
                 JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            session.removeSubmission(submission);
-            submission.setSession(null);
-
-            dataManager.saveToDisk();
+            dataManager.transaction(tx -> tx.unassignSubmission(session, submission));
             loadSessions();
             loadSubmissions();
 
@@ -783,9 +865,7 @@ public class CoordinatorDashboard extends JFrame {
                 JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            session.removeEvaluator(eval);
-
-            dataManager.saveToDisk();
+            dataManager.transaction(tx -> tx.unassignEvaluator(session, eval));
             loadSessions();
 
             JOptionPane.showMessageDialog(this,
@@ -810,72 +890,34 @@ public class CoordinatorDashboard extends JFrame {
         
         if (session == null) return;
 
-        int assignedCount = 0;
-        int failedCount = 0;
+        List<Submission> assigned = new ArrayList<>();
         StringBuilder failureReasons = new StringBuilder();
         
-        for (int subRow : submissionRows) {
-            String submissionId = (String) submissionModel.getValueAt(subRow, 0);
-            Submission submission = dataManager.findSubmissionById(submissionId);
-
-            if (submission == null) {
-                failedCount++;
-                continue;
-            }
-
-            try {
-                String sType = session.getSessionType();
-                String subType = submission.getPresentationType();
-                if (sType != null && subType != null && !sType.equalsIgnoreCase(subType)) {
-                    failureReasons.append("✗ ").append(submission.getTitle())
-                            .append(" (Type mismatch: ").append(subType).append(")\n");
-                    failedCount++;
-                    continue;
-                }
-            
-                Session already = dataManager.findSessionBySubmissionId(submission.getSubmissionId());
-                if (already != null) {
-                    failureReasons.append("✗ ").append(submission.getTitle())
-                            .append(" (Already assigned to ").append(already.getSessionId()).append(")\n");
-                    failedCount++;
-                    continue;
-                }
-                
-                // Check if another submission from the same student is already in this session
-                Student submissionStudent = submission.getStudent();
-                if (submissionStudent != null) {
-                    boolean duplicateStudentFound = false;
-                    for (Submission sessionSub : session.getSubmissions()) {
-                        if (sessionSub.getStudent() != null && 
-                            sessionSub.getStudent().getUserId().equals(submissionStudent.getUserId()) &&
-                            !sessionSub.getSubmissionId().equals(submission.getSubmissionId())) {
-                            failureReasons.append("✗ ").append(submission.getTitle())
-                                    .append(" (Student already has submission in this session)\n");
-                            failedCount++;
-                            duplicateStudentFound = true;
-                            break;
-                        }
+        // One transaction for all rows: rejected rows are skipped, the rest is saved with one write
+        try {
+            dataManager.transaction(tx -> {
+                for (int subRow : submissionRows) {
+                    String submissionId = (String) submissionModel.getValueAt(subRow, 0);
+                    Submission submission = dataManager.findSubmissionById(submissionId);
+                    if (submission == null) continue;
+
+                    try {
+                        // Checks type, existing assignment and one submission per student per session
+                        tx.assignSubmission(coordinator, session, submission);
+                        assigned.add(submission);
+                    } catch (IllegalArgumentException | IllegalStateException ex) {
+                        failureReasons.append("✗ ").append(submission.getTitle()).append(" (").append(ex.getMessage()).append(")\n");
                     }
-                    if (duplicateStudentFound) continue;
-                }
-
-                boolean ok = coordinator.assignSubmissionToSession(session, submission);
-            
-                if (!ok) {
-                    failureReasons.append("✗ ").append(submission.getTitle()).append(" (Assignment failed)\n");
-                    failedCount++;
-                    continue;
                 }
-                
-                assignedCount++;
-        
-            } catch (Exception ex) {
-                failureReasons.append("✗ ").append(submission.getTitle()).append(" (").append(ex.getMessage()).append(")\n");
-                failedCount++;
-            }
+            });
+        } catch (RuntimeException ex) {
+            JOptionPane.showMessageDialog(this, "Assignment failed, nothing was changed:\n" + ex.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+        int assignedCount = assigned.size();
+        int failedCount = submissionRows.length - assignedCount;
         
-        dataManager.saveToDisk();
         loadSessions();
         loadSubmissions();
         
@@ -902,37 +944,32 @@ public class CoordinatorDashboard extends JFrame {
 
         if (session == null) return;
 
-        int assignedCount = 0;
-        int failedCount = 0;
+        List<Evaluator> assigned = new ArrayList<>();
         StringBuilder failureReasons = new StringBuilder();
         
-        for (int eRow : evaluatorRows) {
-            String evaluatorId = (String) evaluatorModel.getValueAt(eRow, 0);
-            Evaluator eval = dataManager.findEvaluatorById(evaluatorId);
-
-            if (eval == null) {
-                failedCount++;
-                continue;
-            }
-
-            try {
-                boolean ok = coordinator.assignEvaluatorToSession(session, eval);
-            
-                if (!ok) {
-                    failureReasons.append("✗ ").append(eval.getName()).append(" (Assignment failed)\n");
-                    failedCount++;
-                    continue;
+        try {
+            dataManager.transaction(tx -> {
+                for (int eRow : evaluatorRows) {
+                    String evaluatorId = (String) evaluatorModel.getValueAt(eRow, 0);
+                    Evaluator eval = dataManager.findEvaluatorById(evaluatorId);
+                    if (eval == null) continue;
+
+                    try {
+                        tx.assignEvaluator(coordinator, session, eval);
+                        assigned.add(eval);
+                    } catch (IllegalArgumentException | IllegalStateException ex) {
+                        failureReasons.append("✗ ").append(eval.getName()).append(" (").append(ex.getMessage()).append(")\n");
+                    }
                 }
-                
-                assignedCount++;
-        
-            } catch (Exception ex) {
-                failureReasons.append("✗ ").append(eval.getName()).append(" (").append(ex.getMessage()).append(")\n");
-                failedCount++;
-            }
+            });
+        } catch (RuntimeException ex) {
+            JOptionPane.showMessageDialog(this, "Assignment failed, nothing was changed:\n" + ex.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+        int assignedCount = assigned.size();
+        int failedCount = evaluatorRows.length - assignedCount;
         
-        dataManager.saveToDisk();
         loadSessions();
         loadEvaluators();
         
@@ -1089,7 +1126,7 @@ public class CoordinatorDashboard extends JFrame {
 
     private void generateScheduleReport() {
         int selectedIndex = scheduleSessionCombo.getSelectedIndex();
-        List<Session> sessions = dataManager.getSessions();
+        List<Session> sessions = dataManager.getSessionsByDate();
 
         if (sessions.isEmpty()) {
             JOptionPane.showMessageDialog(this, "No sessions available.",
@@ -1117,7 +1154,7 @@ public class CoordinatorDashboard extends JFrame {
 
     private void generateEvaluationReport() {
         int selectedIndex = evaluationSessionCombo.getSelectedIndex();
-        List<Session> sessions = dataManager.getSessions();
+        List<Session> sessions = dataManager.getSessionsByDate();
 
         if (sessions.isEmpty()) {
             JOptionPane.showMessageDialog(this, "No sessions available.",
@@ -1129,13 +1166,13 @@ public class CoordinatorDashboard extends JFrame {
             Report r;
             if (selectedIndex == 0) {
                 // All sessions
-                r = coordinator.generateEvaluationReport(sessions);
+                r = coordinator.generateEvaluationReport(sessions, NORMALIZED_SCORE_LABEL, dataManager::getNormalizedScore);
             } else {
                 // Specific session
                 Session selected = sessions.get(selectedIndex - 1);
                 List<Session> singleSession = new ArrayList<>();
                 singleSession.add(selected);
-                r = coordinator.generateEvaluationReport(singleSession);
+                r = coordinator.generateEvaluationReport(singleSession, NORMALIZED_SCORE_LABEL, dataManager::getNormalizedScore);
             }
             outputArea.setText(r.getDetails());
         } catch (Exception ex) {
@@ -1143,6 +1180,109 @@ public class CoordinatorDashboard extends JFrame {
         }
     }
 
+    private void generateDuplicateReport() {
+        List<List<Submission>> clusters = dataManager.findDuplicateClusters();
+
+        StringBuilder sb = new StringBuilder("=== NEAR-DUPLICATE SUBMISSIONS ===\n");
+        sb.append("Submissions with closely matching titles and abstracts\n\n");
+        if (clusters.isEmpty()) sb.append("No likely duplicates found.\n");
+
+        int n = 1;
+        for (List<Submission> cluster : clusters) {
+            sb.append("Group ").append(n++).append(" (").append(cluster.size()).append(" submissions)\n");
+            for (Submission sub : cluster) {
+                String owner = (sub.getStudent() == null) ? "-" : sub.getStudent().getName();
+                sb.append("  ").append(sub.getSubmissionId()).append(" - ").append(sub.getTitle())
+                        .append(" (").append(owner).append(")\n");
+            }
+            sb.append("\n");
+        }
+        outputArea.setText(sb.toString());
+        outputArea.setCaretPosition(0);
+    }
+
+    private void generateScoreSummary() {
+        double[] avg = dataManager.getAverageScores();
+        List<Submission> top = dataManager.rankSubmissionsByAverage(10);
+        ScoreDistribution overall = dataManager.getScoreDistribution();
+
+        StringBuilder sb = new StringBuilder("=== SCORE SUMMARY ===\n\n");
+        sb.append(Report.generateStatistics(dataManager.getSessions(), overall)).append("\n");
+        sb.append(String.format("Average Problem Clarity: %.2f/10\n", avg[0]));
+        sb.append(String.format("Average Methodology: %.2f/10\n", avg[1]));
+        sb.append(String.format("Average Results: %.2f/10\n", avg[2]));
+        sb.append(String.format("Average Presentation: %.2f/10\n", avg[3]));
+        sb.append(String.format("Average Total: %.2f/40\n\n", avg[4]));
+
+        // Totals in bands of five marks
+        if (overall.getCount() > 0) {
+            int[] totals = overall.getHistogram(ScoreDistribution.TOTAL);
+            int widest = 0;
+            int[] bands = new int[(ScoreDistribution.TOTAL_MAX + 5) / 5];
+            for (int score = 0; score < totals.length; score++) {
+                bands[score / 5] += totals[score];
+            }
+            for (int band : bands) widest = Math.max(widest, band);
+
+            sb.append("Total Score Histogram:\n");
+            for (int b = 0; b < bands.length; b++) {
+                int from = b * 5;
+                int to = Math.min(from + 4, ScoreDistribution.TOTAL_MAX);
+                int bar = (widest == 0) ? 0 : (int) Math.round(40.0 * bands[b] / widest);
+                sb.append(String.format("  %2d-%2d | %-40s %d\n", from, to, "#".repeat(bar), bands[b]));
+            }
+            sb.append("\n");
+        }
+
+        sb.append("Top Submissions (average total):\n");
+        if (top.isEmpty()) sb.append("  No evaluated submissions yet.\n");
+        for (int i = 0; i < top.size(); i++) {
+            Submission sub = top.get(i);
+            sb.append(String.format("  %d. %s - %s (%.2f)\n", i + 1, sub.getTitle(), sub.getStudentName(), sub.getAverageScore()));
+        }
+
+        sb.append("\nSessions (total out of 40: median [25th-75th percentile]):\n");
+        for (Session s : dataManager.getSessionsByDate()) {
+            ScoreDistribution d = dataManager.getSessionScoreDistribution(s);
+            if (d.getCount() == 0) continue;
+            sb.append(String.format("  %s (%s): %d evaluations, median %d [%d-%d]\n", s.getSessionId(), s.getDate(),
+                    d.getCount(), d.getMedian(ScoreDistribution.TOTAL),
+                    d.getPercentile(ScoreDistribution.TOTAL, 25), d.getPercentile(ScoreDistribution.TOTAL, 75)));
+        }
+
+        sb.append("\nEvaluator Scoring (total out of 40):\n");
+        for (Evaluator ev : dataManager.getEvaluators()) {
+            ScoreDistribution d = dataManager.getEvaluatorScoreDistribution(ev.getUserId());
+            if (d.getCount() == 0) continue;
+            sb.append(String.format("  %s (%s): %d evaluations, mean %.2f, std. dev. %.2f, median %d\n", ev.getName(), ev.getUserId(),
+                    d.getCount(), dataManager.getEvaluatorMeanScore(ev.getUserId()), dataManager.getEvaluatorScoreStdDev(ev.getUserId()),
+                    d.getMedian(ScoreDistribution.TOTAL)));
+        }
+        outputArea.setText(sb.toString());
+        outputArea.setCaretPosition(0);
+    }
+
+    private void exportScoresCsv() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export Scores");
+        chooser.setSelectedFile(new File("scores.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        File file = chooser.getSelectedFile();
+        if (!file.getName().toLowerCase().endsWith(".csv")) {
+            file = new File(file.getParentFile(), file.getName() + ".csv");
+        }
+
+        try {
+            dataManager.exportScoresCsv(file);
+            JOptionPane.showMessageDialog(this, "Exported to:\n" + file.getAbsolutePath(),
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "Export failed:\n" + ex.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     private void exportOutput() {
         String content = outputArea.getText().trim();
         if (content.isEmpty()) {
@@ -1179,7 +1319,7 @@ public class CoordinatorDashboard extends JFrame {
     // Load data 
     private void loadSessions() {
         sessionModel.setRowCount(0);
-        for (Session s : dataManager.getSessions()) {
+        for (Session s : dataManager.getSessionsByDate()) {
             if (s == null) continue;
             sessionModel.addRow(new Object[]{
                     s.getSessionId(),
@@ -1197,8 +1337,15 @@ public class CoordinatorDashboard extends JFrame {
 
     private void loadSubmissions() {
         submissionModel.setRowCount(0);
+
+        // With a search query only the matches are listed, best first
+        String query = (submissionSearchField == null) ? "" : submissionSearchField.getText().trim();
+        List<Submission> rows = query.isEmpty()
+                ? dataManager.getSubmissions()
+                : dataManager.searchSubmissions(query, MAX_SEARCH_RESULTS);
+        if (!query.isEmpty()) submissionSorter.setSortKeys(null);
     
-        for (Submission sub : dataManager.getSubmissions()) {
+        for (Submission sub : rows) {
             if (sub == null) continue;
     
             // NEW: find which session this submission belongs to (if any)
@@ -1230,8 +1377,9 @@ public class CoordinatorDashboard extends JFrame {
         }
         
         if (submissionsWrap != null) {
+            String label = query.isEmpty() ? "Submissions (" : "Submissions matching \"" + query + "\" (";
             submissionsWrap.setBorder(
-                BorderFactory.createTitledBorder("Submissions (" + total + ", Unassigned: " + unassigned + ")")
+                BorderFactory.createTitledBorder(label + total + ", Unassigned: " + unassigned + ")")
             );
         }
 
@@ -1259,7 +1407,7 @@ public class CoordinatorDashboard extends JFrame {
     }
 
     private void updateSessionComboboxes() {
-        List<Session> sessions = dataManager.getSessions();
+        List<Session> sessions = dataManager.getSessionsByDate();
         
         // Update schedule report combobox
         scheduleSessionCombo.removeAllItems();
@@ -1289,6 +1437,12 @@ public class CoordinatorDashboard extends JFrame {
         }
     }
 
+    @Override
+    public void dispose() {
+        dataManager.removeChangeListener(dataChangeListener);
+        super.dispose();
+    }
+
     private void logout() {
         int confirm = JOptionPane.showConfirmDialog(this,
                 "Are you sure you want to logout?",
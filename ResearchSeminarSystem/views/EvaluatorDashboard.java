@@ -8,7 +8,6 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.Desktop;
 import java.io.File;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
 import javax.imageio.ImageIO;
@@ -45,6 +44,12 @@ public class EvaluatorDashboard extends JFrame {
     private JTable myEvalTable;
     private DefaultTableModel myEvalModel;
 
+    // Refreshes the tables when another window or process commits changes
+    private final Runnable dataChangeListener = () -> {
+        loadMySessions();
+        loadMyEvaluations();
+    };
+
     public EvaluatorDashboard(Evaluator evaluator) {
         this.evaluator = evaluator;
         this.dataManager = DataManager.getInstance();
@@ -56,6 +61,7 @@ public class EvaluatorDashboard extends JFrame {
 
         loadMySessions();
         loadMyEvaluations();
+        dataManager.addChangeListener(dataChangeListener);
 
         showStep("STEP1");
     }
@@ -357,25 +363,7 @@ public class EvaluatorDashboard extends JFrame {
     }
 
     private List<Session> getMySessionsForEvaluator() {
-        List<Session> result = new ArrayList<>();
-        String myId = evaluator.getUserId();
-
-        for (Session s : dataManager.getSessions()) {
-            if (s == null) continue;
-            if (isEvaluatorInSession(s, myId)) result.add(s);
-        }
-        return result;
-    }
-
-    private boolean isEvaluatorInSession(Session session, String evaluatorId) {
-        if (session == null || evaluatorId == null) return false;
-        List<Evaluator> evals = session.getEvaluators();
-        if (evals == null) return false;
-
-        for (Evaluator e : evals) {
-            if (e != null && evaluatorId.equals(e.getUserId())) return true;
-        }
-        return false;
+        return dataManager.getSessionsByEvaluatorId(evaluator.getUserId());
     }
 
     private void loadPresentationsForSession(Session session) {
@@ -605,9 +593,9 @@ public class EvaluatorDashboard extends JFrame {
         String comments = commentArea.getText().trim();
 
         try {
-            Evaluation evaluation = evaluator.evaluateSubmission(
-                    selectedSubmission, clarity, methodology, results, presentation, comments
-            );
+            // Linked to the submission and evaluator by the add, so a rejected add leaves no trace
+            Evaluation evaluation = new Evaluation(dataManager.generateId("EVAL"), clarity, methodology,
+                    results, presentation, comments, selectedSubmission, evaluator);
 
             dataManager.addEvaluation(evaluation);
 
@@ -700,20 +688,16 @@ public class EvaluatorDashboard extends JFrame {
     private void loadMyEvaluations() {
         myEvalModel.setRowCount(0);
 
-        String myId = evaluator.getUserId();
-        for (Submission sub : dataManager.getSubmissions()) {
-            if (sub == null || sub.getEvaluations() == null) continue;
-
-            for (Evaluation ev : sub.getEvaluations()) {
-                if (ev != null && myId.equals(ev.getEvaluatorId())) {
-                    myEvalModel.addRow(new Object[]{
-                            sub.getSubmissionId(),
-                            sub.getTitle(),
-                            ev.getTotalScore(),
-                            shorten(ev.getComments(), 35)
-                    });
-                }
-            }
+        for (Evaluation ev : dataManager.getEvaluationsByEvaluator(evaluator.getUserId())) {
+            Submission sub = ev.getSubmission();
+            if (sub == null) continue;
+
+            myEvalModel.addRow(new Object[]{
+                    sub.getSubmissionId(),
+                    sub.getTitle(),
+                    ev.getTotalScore(),
+                    shorten(ev.getComments(), 35)
+            });
         }
     }
 
@@ -740,9 +724,7 @@ public class EvaluatorDashboard extends JFrame {
 
         if (confirm != JOptionPane.YES_OPTION) return;
 
-        sub.getEvaluations().remove(myEval);
-        dataManager.removeEvaluation(myEval);
-        dataManager.saveToDisk();
+        dataManager.removeEvaluation(myEval); // also detaches it from the submission
 
         loadMyEvaluations();
 
@@ -756,6 +738,12 @@ public class EvaluatorDashboard extends JFrame {
         return t.substring(0, max) + "...";
     }
 
+    @Override
+    public void dispose() {
+        dataManager.removeChangeListener(dataChangeListener);
+        super.dispose();
+    }
+
     private void logout() {
         int confirm = JOptionPane.showConfirmDialog(this,
                 "Are you sure you want to logout?",
@@ -7,7 +7,6 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.lang.reflect.Method;
-import java.util.List;
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
@@ -333,23 +332,19 @@ public class LoginFrame extends JFrame {
                 User createdUser;
 
                 if ("Student".equals(role)) {
-                    Student s = new Student(newId, name, email, password, "");
-                    createdUser = s;
-                    dataManager.addStudent(s);
-
+                    createdUser = new Student(newId, name, email, password, "");
                 } else if ("Evaluator".equals(role)) {
-                    Evaluator ev = new Evaluator(newId, name, email, password, "");
-                    createdUser = ev;
-                    dataManager.addEvaluator(ev);
-
+                    createdUser = new Evaluator(newId, name, email, password, "");
                 } else { // Coordinator
-                    Coordinator c = new Coordinator(newId, name, email, password, "");
-                    createdUser = c;
-                    dataManager.addCoordinator(c);
+                    createdUser = new Coordinator(newId, name, email, password, "");
                 }
 
+                // Set before registering, so the phone number is reserved and saved with the account
                 setContactIfPossible(createdUser, contact);
 
+                // Re-checks ID, email and phone as one step (another window may have taken them since)
+                dataManager.registerUser(createdUser);
+
                 invokeIfExists(dataManager, "saveData");
 
                 JOptionPane.showMessageDialog(this,
@@ -398,30 +393,9 @@ public class LoginFrame extends JFrame {
 
     // ID Generators
     private String generateNextUserId(String role) {
-        String prefix;
-        if ("Student".equals(role)) prefix = "S";
-        else if ("Evaluator".equals(role)) prefix = "E";
-        else prefix = "C";
-
-        int max = 0;
-        List<User> users = dataManager.getUsers();
-        if (users != null) {
-            for (User u : users) {
-                if (u == null || u.getUserId() == null) continue;
-                String id = u.getUserId().trim().toUpperCase();
-
-                if (id.startsWith(prefix)) {
-                    String numPart = id.substring(1);
-                    try {
-                        int n = Integer.parseInt(numPart);
-                        if (n > max) max = n;
-                    } catch (NumberFormatException ignored) { }
-                }
-            }
-        }
-
-        int next = max + 1;
-        return prefix + String.format("%03d", next);
+        if ("Student".equals(role)) return dataManager.generateStudentId();
+        if ("Evaluator".equals(role)) return dataManager.generateEvaluatorId();
+        return dataManager.generateCoordinatorId();
     }
 
     private void openDashboard(User user) {
@@ -7,8 +7,8 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.io.File;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 
@@ -29,6 +29,9 @@ public class StudentDashboard extends JFrame {
     private JRadioButton oralRadio;
     private JRadioButton posterRadio;
 
+    // Refreshes the table when another window or process commits changes
+    private final Runnable dataChangeListener = this::loadSubmissions;
+
     public StudentDashboard(Student student) {
         this.student = student;
         this.dataManager = DataManager.getInstance();
@@ -38,6 +41,7 @@ public class StudentDashboard extends JFrame {
         
         initializeUI();
         loadSubmissions();
+        dataManager.addChangeListener(dataChangeListener);
     }
 
     private void setWindowIcon() {
@@ -334,6 +338,9 @@ public class StudentDashboard extends JFrame {
             }
         }
 
+        // Warn about a likely resubmission or copied abstract before registering
+        if (!confirmNotDuplicate(title, abstractText)) return;
+
         Submission submission = student.registerSubmission(title, abstractText, supervisor, type, filePath);
 
         // Update student's default supervisor name for next time
@@ -367,22 +374,34 @@ public class StudentDashboard extends JFrame {
         return extension.equals("pptx") || extension.equals("pdf") || extension.equals("odp");
     }
 
+    private boolean confirmNotDuplicate(String title, String abstractText) {
+        Map<Submission, Double> similar = dataManager.findSimilarSubmissions(title, abstractText);
+        if (similar.isEmpty()) return true;
+
+        StringBuilder msg = new StringBuilder("This title and abstract closely match existing submissions:\n\n");
+        int shown = 0;
+        for (Map.Entry<Submission, Double> e : similar.entrySet()) {
+            if (shown++ == 3) break;
+            Submission other = e.getKey();
+            boolean own = other.getStudent() != null && student.getUserId().equals(other.getStudent().getUserId());
+            // Other students' work is not shown to the student, only that it exists
+            String which = own ? other.getSubmissionId() + " - " + other.getTitle() : "another student's submission";
+            msg.append(String.format("  %.0f%% similar to %s%n", e.getValue() * 100, which));
+        }
+        msg.append("\nRegister this submission anyway?");
+
+        int choice = JOptionPane.showConfirmDialog(this, msg.toString(),
+                "Possible Duplicate", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+        return choice == JOptionPane.YES_OPTION;
+    }
+
     private void loadSubmissions() {
         // Reload data from disk to ensure we have the latest changes from the coordinator
         dataManager.reloadFromDisk();
         
         tableModel.setRowCount(0);
         
-        // Get all submissions from dataManager that belong to this student
-        List<Submission> studentSubmissions = new ArrayList<>();
-        for (Submission sub : dataManager.getSubmissions()) {
-            if (sub.getStudent() != null && sub.getStudent().getUserId().equals(student.getUserId())) {
-                studentSubmissions.add(sub);
-            }
-        }
-        
-        // Display submissions in table
-        for (Submission sub : studentSubmissions) {
+        for (Submission sub : dataManager.getSubmissionsByStudent(student.getUserId())) {
             Session s = sub.getSession();
             String sessionInfo = (s == null)
                     ? "Not Assigned"
@@ -398,10 +417,6 @@ public class StudentDashboard extends JFrame {
                     sub.getEvaluations().size()
             });
         }
-        
-        // Update student's submission list to keep it in sync
-        student.getSubmissions().clear();
-        student.getSubmissions().addAll(studentSubmissions);
     }
 
     private void viewSubmissionDetails() {
@@ -704,13 +719,9 @@ public class StudentDashboard extends JFrame {
                 }
             }
 
-            submission.setTitle(newTitle);
-            submission.setAbstractText(newAbstract);
-            submission.setSupervisorName(newSupervisor);
-            submission.setPresentationType(oralRadio.isSelected() ? "Oral" : "Poster");
-            submission.setFilePath(newFilePath);
-
-            dataManager.saveToDisk();
+            String newType = oralRadio.isSelected() ? "Oral" : "Poster";
+            dataManager.transaction(tx -> tx.updateSubmission(submission, newTitle, newAbstract, newSupervisor,
+                    newType, newFilePath));
             loadSubmissions();
 
             JOptionPane.showMessageDialog(this,
@@ -721,6 +732,12 @@ public class StudentDashboard extends JFrame {
     }
     
     
+    @Override
+    public void dispose() {
+        dataManager.removeChangeListener(dataChangeListener);
+        super.dispose();
+    }
+
     private void logout() {
         int confirm = JOptionPane.showConfirmDialog(this,
                 "Are you sure you want to logout?",
@@ -766,16 +783,8 @@ public class StudentDashboard extends JFrame {
                 JOptionPane.WARNING_MESSAGE);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            student.getSubmissions().remove(submission);
-            dataManager.getSubmissions().remove(submission);
-            
-            // Remove any evaluations associated with this submission
-            List<Evaluation> evaluationsToRemove = new ArrayList<>(submission.getEvaluations());
-            for (Evaluation eval : evaluationsToRemove) {
-                dataManager.removeEvaluation(eval);
-            }
-            
-            dataManager.saveToDisk();
+            // Removes it from the student and the store along with its evaluations, in one write
+            dataManager.transaction(tx -> tx.deleteSubmission(submission));
             loadSubmissions();
 
             JOptionPane.showMessageDialog(this,